@@ -25,19 +25,22 @@ package pascal.taie.analysis.dataflow.analysis;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
-import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Implementation of classic live variable analysis.
+ * <p>
+ * Facts of each method are bit vectors over the variables of the method,
+ * and each statement uses (generates) the variables in its uses,
+ * and defines (kills) the variable in its def, see {@link GenKillAnalysis}.
+ * Option "fact" selects {@link pascal.taie.analysis.dataflow.fact.IndexedSetFact}
+ * (value "indexed", the default) or {@link SetFact} (value "set").
  */
-public class LiveVariableAnalysis extends
-        AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+public class LiveVariableAnalysis extends GenKillAnalysis<Stmt, Var> {
 
     public static final String ID = "livevar";
 
@@ -51,9 +54,8 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return new SetFact<>();
+    protected List<Var> getUniverse(CFG<Stmt> cfg) {
+        return cfg.getIR().getVars();
     }
 
     @Override
@@ -69,22 +71,16 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        Optional<LValue> def = stmt.getDef();
-        List<RValue> uses = stmt.getUses();
-
-        SetFact<Var> copyOut = out.copy();
-        def.ifPresent(lValue -> {
-            if (lValue instanceof Var) {
-                copyOut.remove((Var) lValue);
+    protected void computeGenKill(Stmt stmt, SetFact<Var> gen, SetFact<Var> kill) {
+        stmt.getDef().ifPresent(lValue -> {
+            if (lValue instanceof Var var) {
+                kill.add(var);
             }
         });
-        for (RValue rValue : uses) {
-            if (rValue instanceof Var) {
-                copyOut.add((Var) rValue);
+        for (RValue rValue : stmt.getUses()) {
+            if (rValue instanceof Var var) {
+                gen.add(var);
             }
         }
-        return in.union(copyOut);
     }
 }
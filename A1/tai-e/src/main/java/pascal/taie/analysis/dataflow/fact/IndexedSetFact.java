@@ -0,0 +1,345 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents set-like data-flow facts whose elements are {@link Indexable}
+ * and belong to a fixed universe, e.g., the variables or statements of
+ * a method. The fact is backed by a dense bit vector keyed on the index
+ * of the elements, so that set operations between facts of the same
+ * universe are performed word by word instead of hashing each element.
+ * <p>
+ * All elements added to this fact must come from the universe given
+ * at construction, i.e., for each element {@code e},
+ * {@code universe.get(e.getIndex()) == e} must hold.
+ *
+ * @param <E> type of elements
+ */
+public class IndexedSetFact<E extends Indexable> extends SetFact<E> {
+
+    private final BitSetView<E> bits;
+
+    /**
+     * Constructs an empty fact for the given universe.
+     *
+     * @param universe the list of all possible elements of this fact,
+     *                 where each element is located at its index.
+     */
+    public IndexedSetFact(List<E> universe) {
+        this(new BitSetView<>(universe,
+                new long[BitSetView.wordsFor(universe.size())]));
+    }
+
+    private IndexedSetFact(BitSetView<E> bits) {
+        super(bits, false);
+        this.bits = bits;
+    }
+
+    /**
+     * @return the universe of this fact.
+     */
+    public List<E> getUniverse() {
+        return bits.universe;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (isCompatible(other)) {
+            long[] words = bits.words;
+            long[] otherWords = ((IndexedSetFact<E>) other).bits.words;
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long w = words[i] | otherWords[i];
+                if (w != words[i]) {
+                    words[i] = w;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        return super.union(other);
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (isCompatible(other)) {
+            long[] words = bits.words;
+            long[] otherWords = ((IndexedSetFact<E>) other).bits.words;
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long w = words[i] & otherWords[i];
+                if (w != words[i]) {
+                    words[i] = w;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        return super.intersect(other);
+    }
+
+    @Override
+    public boolean diff(SetFact<E> other) {
+        if (isCompatible(other)) {
+            long[] words = bits.words;
+            long[] otherWords = ((IndexedSetFact<E>) other).bits.words;
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long w = words[i] & ~otherWords[i];
+                if (w != words[i]) {
+                    words[i] = w;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        return super.diff(other);
+    }
+
+    /**
+     * Adds the elements of {@code gen}, and the elements of {@code fact}
+     * which are not in {@code kill}, to this fact, i.e., updates this fact
+     * to {@code this | gen | (fact & ~kill)}. This is the in-place transfer
+     * of gen/kill analyses.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean unionGenKill(SetFact<E> fact,
+                                IndexedSetFact<E> gen, IndexedSetFact<E> kill) {
+        if (isCompatible(fact) && isCompatible(gen) && isCompatible(kill)) {
+            long[] words = bits.words;
+            long[] factWords = ((IndexedSetFact<E>) fact).bits.words;
+            long[] genWords = gen.bits.words;
+            long[] killWords = kill.bits.words;
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long w = words[i] | genWords[i] | (factWords[i] & ~killWords[i]);
+                if (w != words[i]) {
+                    words[i] = w;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        SetFact<E> result = fact.copy();
+        result.diff(kill);
+        result.union(gen);
+        return union(result);
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (isCompatible(other)) {
+            long[] otherWords = ((IndexedSetFact<E>) other).bits.words;
+            System.arraycopy(otherWords, 0, bits.words, 0, otherWords.length);
+        } else {
+            super.set(other);
+        }
+    }
+
+    @Override
+    public IndexedSetFact<E> copy() {
+        return new IndexedSetFact<>(
+                new BitSetView<>(bits.universe, bits.words.clone()));
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(bits.words, 0L);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof IndexedSetFact<?> that
+                && bits.universe == that.bits.universe) {
+            return Arrays.equals(bits.words, that.bits.words);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * @return true if other fact is an {@link IndexedSetFact} over
+     * the same universe as this fact, so that the set operations
+     * can be performed directly on the bit vectors.
+     */
+    private boolean isCompatible(SetFact<E> other) {
+        return other instanceof IndexedSetFact<E> that
+                && bits.universe == that.bits.universe;
+    }
+
+    /**
+     * {@link java.util.Set} view of a bit vector, which maps each
+     * set bit back to the element at the same index of the universe.
+     */
+    private static final class BitSetView<E extends Indexable>
+            extends AbstractSet<E> {
+
+        private static final int ADDRESS_BITS_PER_WORD = 6;
+
+        private final List<E> universe;
+
+        private final long[] words;
+
+        private BitSetView(List<E> universe, long[] words) {
+            this.universe = universe;
+            this.words = words;
+        }
+
+        private static int wordsFor(int nBits) {
+            return (nBits + Long.SIZE - 1) >>> ADDRESS_BITS_PER_WORD;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Indexable e) {
+                int index = e.getIndex();
+                return index >= 0 && index < universe.size()
+                        && (words[index >>> ADDRESS_BITS_PER_WORD] & (1L << index)) != 0
+                        && universe.get(index) == o;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean add(E e) {
+            int index = e.getIndex();
+            assert universe.get(index) == e : e + " is not in the universe";
+            int wordIndex = index >>> ADDRESS_BITS_PER_WORD;
+            long old = words[wordIndex];
+            words[wordIndex] = old | (1L << index);
+            return words[wordIndex] != old;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                int index = ((Indexable) o).getIndex();
+                words[index >>> ADDRESS_BITS_PER_WORD] &= ~(1L << index);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(words, 0L);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (long word : words) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (long word : words) {
+                size += Long.bitCount(word);
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int next = nextSetBit(0);
+
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public E next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = nextSetBit(next + 1);
+                    return universe.get(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    words[last >>> ADDRESS_BITS_PER_WORD] &= ~(1L << last);
+                    last = -1;
+                }
+            };
+        }
+
+        /**
+         * @return the index of the first set bit that occurs on or after
+         * the given index, or -1 if there is no such bit.
+         */
+        private int nextSetBit(int fromIndex) {
+            int wordIndex = fromIndex >>> ADDRESS_BITS_PER_WORD;
+            if (wordIndex >= words.length) {
+                return -1;
+            }
+            long word = words[wordIndex] & (-1L << fromIndex);
+            while (true) {
+                if (word != 0) {
+                    return (wordIndex << ADDRESS_BITS_PER_WORD)
+                            + Long.numberOfTrailingZeros(word);
+                }
+                if (++wordIndex == words.length) {
+                    return -1;
+                }
+                word = words[wordIndex];
+            }
+        }
+    }
+}
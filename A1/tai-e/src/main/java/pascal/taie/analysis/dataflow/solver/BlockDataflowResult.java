@@ -0,0 +1,148 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data-flow result of {@link BlockSolver}, which only holds the facts
+ * at the boundaries of basic blocks. The facts of the other nodes are
+ * recomputed from the boundary facts of their blocks when they are
+ * queried; the recomputed facts of the most recently queried block
+ * are cached, so that querying the nodes block by block recomputes
+ * each block only once.
+ * <p>
+ * The facts must not be set after solving. Then the facts can be
+ * queried concurrently: the cached facts are published together with
+ * their block as one immutable {@link BlockFacts}, and each query reads
+ * it once, thus it never sees the facts of another block. Concurrent
+ * queries of different blocks may recompute the same block, and only
+ * the last recomputed block stays cached.
+ */
+class BlockDataflowResult<Node, Fact> implements MutableNodeResult<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final BlockCFG<Node> blockCFG;
+
+    /**
+     * Facts at the boundaries of the basic blocks.
+     */
+    private final DataflowResult<Node, Fact> boundaryFacts = new DataflowResult<>();
+
+    /**
+     * Facts of the nodes of the most recently queried block, or null.
+     */
+    private volatile BlockFacts<Node, Fact> cached;
+
+    BlockDataflowResult(DataflowAnalysis<Node, Fact> analysis,
+                        BlockCFG<Node> blockCFG) {
+        this.analysis = analysis;
+        this.blockCFG = blockCFG;
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        BasicBlock<Node> block = blockCFG.getBlockOf(node);
+        if (block == null || node == block.getFirst()) {
+            return boundaryFacts.getInFact(node);
+        }
+        return getFactsOf(block).inFacts().get(node);
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        boundaryFacts.setInFact(node, fact);
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        BasicBlock<Node> block = blockCFG.getBlockOf(node);
+        if (block == null || node == block.getLast()) {
+            return boundaryFacts.getOutFact(node);
+        }
+        return getFactsOf(block).outFacts().get(node);
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        boundaryFacts.setOutFact(node, fact);
+    }
+
+    /**
+     * @return the facts of the nodes of given block, which are
+     * recomputed if they are not cached.
+     */
+    private BlockFacts<Node, Fact> getFactsOf(BasicBlock<Node> block) {
+        BlockFacts<Node, Fact> facts = cached;
+        if (facts != null && facts.block() == block) {
+            return facts;
+        }
+        CFG<Node> cfg = blockCFG.getCFG();
+        Node first = block.getFirst();
+        Node last = block.getLast();
+        Map<Node, Fact> inner = Maps.newMap(block.size());
+        // the transfer of the boundary node writes to a new fact,
+        // so that the kept boundary facts are not touched
+        if (analysis.isForward()) {
+            BlockSolver.transferBlock(analysis, cfg, block,
+                    boundaryFacts.getInFact(first), analysis.newInitialFact(cfg), inner);
+        } else {
+            BlockSolver.transferBlock(analysis, cfg, block,
+                    analysis.newInitialFact(cfg), boundaryFacts.getOutFact(last), inner);
+        }
+        Map<Node, Fact> inFacts = Maps.newMap(block.size());
+        Map<Node, Fact> outFacts = Maps.newMap(block.size());
+        List<Node> nodes = block.getNodes();
+        inFacts.put(first, boundaryFacts.getInFact(first));
+        outFacts.put(last, boundaryFacts.getOutFact(last));
+        for (int i = 0; i + 1 < nodes.size(); ++i) {
+            // the fact between two adjacent nodes is both the out fact
+            // of the previous node and the in fact of the next node
+            Fact fact = inner.get(analysis.isForward() ? nodes.get(i) : nodes.get(i + 1));
+            outFacts.put(nodes.get(i), fact);
+            inFacts.put(nodes.get(i + 1), fact);
+        }
+        facts = new BlockFacts<>(block, inFacts, outFacts);
+        cached = facts;
+        return facts;
+    }
+
+    /**
+     * In and out facts of the nodes of a basic block.
+     */
+    private record BlockFacts<Node, Fact>(BasicBlock<Node> block,
+                                          Map<Node, Fact> inFacts,
+                                          Map<Node, Fact> outFacts) {
+    }
+}
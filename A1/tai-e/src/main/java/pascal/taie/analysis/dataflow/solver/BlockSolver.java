@@ -0,0 +1,171 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Work-list solver which works on the basic blocks of the CFG,
+ * see {@link BlockCFG}. The blocks are processed in the same order as
+ * the nodes in {@link PriorityWorkListSolver}.
+ * <p>
+ * The solver keeps data-flow facts only at the boundaries of the blocks,
+ * i.e., the in fact of the first node and the out fact of the last node
+ * of each block. The facts of the other nodes are computed by
+ * {@link #transferBlock} on the fly, and the resulting
+ * {@link BlockDataflowResult} recomputes them when they are queried.
+ * As the facts inside blocks are not kept between iterations,
+ * this solver does not apply widening.
+ */
+class BlockSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    BlockSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected MutableNodeResult<Node, Fact> newResult(CFG<Node> cfg) {
+        return new BlockDataflowResult<>(analysis, BlockCFG.of(cfg));
+    }
+
+    @Override
+    protected void initializeForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        for (BasicBlock<Node> block : BlockCFG.of(cfg).getBlocks()) {
+            Node first = block.getFirst();
+            result.setInFact(first, cfg.isEntry(first) ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact(cfg));
+            result.setOutFact(block.getLast(), analysis.newInitialFact(cfg));
+        }
+    }
+
+    @Override
+    protected void initializeBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        for (BasicBlock<Node> block : BlockCFG.of(cfg).getBlocks()) {
+            Node first = block.getFirst();
+            result.setInFact(first, cfg.isExit(first) ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact(cfg));
+            result.setOutFact(block.getLast(), analysis.newInitialFact(cfg));
+        }
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        BlockCFG<Node> blockCFG = BlockCFG.of(cfg);
+        List<BasicBlock<Node>> order = PriorityWorkListSolver.reversePostOrder(
+                blockCFG, blockCFG.getEntry(), blockCFG::getSuccsOf);
+        Map<BasicBlock<Node>, Integer> priorities =
+                PriorityWorkListSolver.indexNodes(order);
+        BitSet workList = new BitSet(order.size());
+        workList.set(0, order.size());
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            BasicBlock<Node> block = order.get(i);
+            Fact in = result.getInFact(block.getFirst());
+            for (Node pred : cfg.getPredsOf(block.getFirst())) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            if (transferBlock(analysis, cfg, block, in,
+                    result.getOutFact(block.getLast()), null)) {
+                for (BasicBlock<Node> succ : blockCFG.getSuccsOf(block)) {
+                    workList.set(priorities.get(succ));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        BlockCFG<Node> blockCFG = BlockCFG.of(cfg);
+        List<BasicBlock<Node>> order = PriorityWorkListSolver.reversePostOrder(
+                blockCFG, blockCFG.getExit(), blockCFG::getPredsOf);
+        Map<BasicBlock<Node>, Integer> priorities =
+                PriorityWorkListSolver.indexNodes(order);
+        BitSet workList = new BitSet(order.size());
+        workList.set(0, order.size());
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            BasicBlock<Node> block = order.get(i);
+            Fact out = result.getOutFact(block.getLast());
+            for (Node succ : cfg.getSuccsOf(block.getLast())) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            if (transferBlock(analysis, cfg, block,
+                    result.getInFact(block.getFirst()), out, null)) {
+                for (BasicBlock<Node> pred : blockCFG.getPredsOf(block)) {
+                    workList.set(priorities.get(pred));
+                }
+            }
+        }
+    }
+
+    /**
+     * Transfers the facts through the nodes of given block. For forward
+     * (backward) analysis, the facts flow from {@code in} ({@code out})
+     * through the nodes of the block into {@code out} ({@code in}), and
+     * the facts between the nodes are created from the initial fact.
+     *
+     * @param inner if not null, receives the out (in) facts of the nodes
+     *              of the block except the last (first) one, which are
+     *              also the in (out) facts of their next (previous) nodes.
+     * @return true if the transfer changed {@code out} ({@code in}),
+     * otherwise false.
+     */
+    static <Node, Fact> boolean transferBlock(
+            DataflowAnalysis<Node, Fact> analysis, CFG<Node> cfg,
+            BasicBlock<Node> block, Fact in, Fact out, Map<Node, Fact> inner) {
+        List<Node> nodes = block.getNodes();
+        int last = nodes.size() - 1;
+        if (analysis.isForward()) {
+            Fact fact = in;
+            for (int i = 0; i < last; ++i) {
+                Fact next = analysis.newInitialFact(cfg);
+                analysis.transferNode(nodes.get(i), fact, next);
+                if (inner != null) {
+                    inner.put(nodes.get(i), next);
+                }
+                fact = next;
+            }
+            return analysis.transferNode(nodes.get(last), fact, out);
+        } else {
+            Fact fact = out;
+            for (int i = last; i > 0; --i) {
+                Fact prev = analysis.newInitialFact(cfg);
+                analysis.transferNode(nodes.get(i), prev, fact);
+                if (inner != null) {
+                    inner.put(nodes.get(i), prev);
+                }
+                fact = prev;
+            }
+            return analysis.transferNode(nodes.get(0), in, fact);
+        }
+    }
+}
@@ -23,7 +23,7 @@
 package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
 import java.util.HashSet;
@@ -38,12 +38,12 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
     }
 
     @Override
-    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         throw new UnsupportedOperationException();
     }
 
     @Override
-    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         boolean changed = true;
         while(changed) {
             changed = false;
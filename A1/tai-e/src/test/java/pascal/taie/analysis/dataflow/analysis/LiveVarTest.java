@@ -61,4 +61,22 @@ public class LiveVarTest {
     public void Reference() {
         testLV("Reference");
     }
+
+    @Test
+    public void testIndexedFact() {
+        Tests.test("BranchLoop", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;fact:indexed");
+    }
+
+    @Test
+    public void testSetFact() {
+        Tests.test("BranchLoop", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;fact:set");
+    }
+
+    @Test
+    public void testBaselineSolver() {
+        Tests.test("BranchLoop", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;solver:baseline");
+    }
 }
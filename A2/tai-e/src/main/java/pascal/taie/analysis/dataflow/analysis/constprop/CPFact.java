@@ -48,6 +48,14 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    /**
+     * Constructs a CPFact over given map, see
+     * {@link MapFact#MapFact(Map, boolean)}.
+     */
+    protected CPFact(Map<Var, Value> map, boolean copy) {
+        super(map, copy);
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -73,4 +81,30 @@ public class CPFact extends MapFact<Var, Value> {
     public CPFact copy() {
         return new CPFact(this.map);
     }
+
+    /**
+     * CPFacts are compared by their contents, so that facts with different
+     * representations (e.g., {@link IntCPFact}) can be equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CPFact that)) {
+            return false;
+        }
+        return map.equals(that.map);
+    }
+
+    @Override
+    public int hashCode() {
+        // follows the contract of Map.hashCode(), which is not kept by
+        // all backing maps, so that equal facts have equal hash codes
+        int hash = 0;
+        for (Map.Entry<Var, Value> e : map.entrySet()) {
+            hash += e.getKey().hashCode() ^ e.getValue().hashCode();
+        }
+        return hash;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.PersistentIndexableMap;
+import pascal.taie.ir.exp.Var;
+
+/**
+ * {@link CPFact} backed by a {@link PersistentIndexableMap} keyed by
+ * the indexes of variables. Copying this fact takes constant time
+ * as the copy shares the underlying trie with this fact, and
+ * {@link #copyFrom(MapFact)} and {@link #equals(Object)} between facts
+ * derived from each other only visit the parts that differ.
+ */
+public class PersistentCPFact extends CPFact {
+
+    public PersistentCPFact() {
+        this(new PersistentIndexableMap<>());
+    }
+
+    private PersistentCPFact(PersistentIndexableMap<Var, Value> map) {
+        super(map, false);
+    }
+
+    private PersistentIndexableMap<Var, Value> getMap() {
+        return (PersistentIndexableMap<Var, Value>) map;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof PersistentCPFact other) {
+            return getMap().putAll(other.getMap());
+        }
+        return super.copyFrom(fact);
+    }
+
+    @Override
+    public PersistentCPFact copy() {
+        return new PersistentCPFact(getMap().copy());
+    }
+}
@@ -0,0 +1,533 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Map whose keys are {@link Indexable}, backed by a persistent
+ * (structurally shared) bitmapped trie keyed on the key indexes.
+ * Each trie node covers 32 consecutive slots of the level below,
+ * and only stores the present ones, indicated by a bitmap.
+ * <p>
+ * The trie is immutable: {@link #copy()} simply shares the root of
+ * this map with the new map, and updates only copy the nodes on the
+ * path from the root to the updated key, so that copies of a map share
+ * all untouched nodes. Operations between maps which share nodes,
+ * i.e., {@link #equals(Object)} and {@link #putAll(PersistentIndexableMap)},
+ * skip the shared subtrees.
+ * <p>
+ * Different keys must have different indexes, and null values
+ * are not permitted.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class PersistentIndexableMap<K extends Indexable, V>
+        extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+
+    private static final int WIDTH = 1 << BITS;
+
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * Root of the trie, null if this map is empty.
+     */
+    private Node root;
+
+    /**
+     * Number of bits of key indexes below the level of {@link #root}.
+     * The root covers key indexes in [0, 2^(shift + BITS)).
+     */
+    private int shift;
+
+    private int size;
+
+    public PersistentIndexableMap() {
+    }
+
+    private PersistentIndexableMap(Node root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Creates and returns a copy of this map in constant time.
+     */
+    public PersistentIndexableMap<K, V> copy() {
+        return new PersistentIndexableMap<>(root, shift, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (!(key instanceof Indexable k)) {
+            return null;
+        }
+        int index = k.getIndex();
+        if (root == null || index < 0 || index >>> shift >>> BITS != 0) {
+            return null;
+        }
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.get((index >>> level) & MASK);
+            if (node == null) {
+                return null;
+            }
+        }
+        Object[] entry = (Object[]) node.get(index & MASK);
+        return entry != null && entry[0] == key ? (V) entry[1] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        int index = key.getIndex();
+        if (index < 0) {
+            throw new IllegalArgumentException(
+                    "Index of key must be non-negative, given: " + key);
+        }
+        if (root == null) {
+            shift = 0;
+        }
+        while (index >>> shift >>> BITS != 0) {
+            // grow the trie, the old root becomes the first child
+            root = root == null ? null : Node.singleton(0, root);
+            shift += BITS;
+        }
+        Object[] old = new Object[1];
+        root = put(root, shift, index, key, value, old);
+        if (old[0] == null) {
+            ++size;
+        }
+        return (V) old[0];
+    }
+
+    private static Node put(Node node, int level, int index,
+                            Object key, Object value, Object[] old) {
+        int slot = (index >>> level) & MASK;
+        if (level == 0) {
+            Object[] entry = node == null ? null : (Object[]) node.get(slot);
+            if (entry != null) {
+                old[0] = entry[1];
+                if (entry[1].equals(value)) {
+                    return node;
+                }
+            }
+            Object[] newEntry = {key, value};
+            return node == null ? Node.singleton(slot, newEntry)
+                    : node.with(slot, newEntry);
+        }
+        Node child = node == null ? null : (Node) node.get(slot);
+        Node newChild = put(child, level - BITS, index, key, value, old);
+        if (newChild == child) {
+            return node;
+        }
+        return node == null ? Node.singleton(slot, newChild)
+                : node.with(slot, newChild);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (!(key instanceof Indexable k)) {
+            return null;
+        }
+        int index = k.getIndex();
+        if (root == null || index < 0 || index >>> shift >>> BITS != 0) {
+            return null;
+        }
+        Object[] old = new Object[1];
+        root = remove(root, shift, index, key, old);
+        if (old[0] != null) {
+            --size;
+        }
+        return (V) old[0];
+    }
+
+    private static Node remove(Node node, int level, int index,
+                               Object key, Object[] old) {
+        int slot = (index >>> level) & MASK;
+        Object child = node.get(slot);
+        if (child == null) {
+            return node;
+        }
+        if (level == 0) {
+            Object[] entry = (Object[]) child;
+            if (entry[0] != key) {
+                return node;
+            }
+            old[0] = entry[1];
+            return node.without(slot);
+        }
+        Node newChild = remove((Node) child, level - BITS, index, key, old);
+        if (newChild == child) {
+            return node;
+        }
+        return newChild == null ? node.without(slot)
+                : node.with(slot, newChild);
+    }
+
+    /**
+     * Puts all mappings of other map into this map. Subtrees shared
+     * by the two maps are skipped.
+     *
+     * @return true if this map changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean putAll(PersistentIndexableMap<K, V> other) {
+        if (other.root == null || other.root == root) {
+            return false;
+        }
+        if (root == null) {
+            root = other.root;
+            shift = other.shift;
+            size = other.size;
+            return true;
+        }
+        while (shift < other.shift) {
+            root = Node.singleton(0, root);
+            shift += BITS;
+        }
+        Node otherRoot = other.root;
+        for (int s = other.shift; s < shift; s += BITS) {
+            otherRoot = Node.singleton(0, otherRoot);
+        }
+        int[] added = new int[1];
+        Node newRoot = merge(root, otherRoot, shift, added);
+        size += added[0];
+        boolean changed = newRoot != root;
+        root = newRoot;
+        return changed;
+    }
+
+    /**
+     * @return the node containing the mappings of both nodes, where
+     * the mappings of {@code n2} take precedence. If the result has
+     * the same mappings as {@code n1}, then {@code n1} itself is returned.
+     */
+    private static Node merge(Node n1, Node n2, int level, int[] added) {
+        if (n1 == n2 || n2 == null) {
+            return n1;
+        }
+        Node result = n1;
+        for (int bits = n2.bitmap; bits != 0; bits &= bits - 1) {
+            int slot = Integer.numberOfTrailingZeros(bits);
+            Object c1 = n1.get(slot);
+            Object c2 = n2.get(slot);
+            Object merged;
+            if (c1 == null) {
+                merged = c2;
+                added[0] += level == 0 ? 1 : ((Node) c2).count(level - BITS);
+            } else if (level == 0) {
+                merged = ((Object[]) c1)[1].equals(((Object[]) c2)[1]) ? c1 : c2;
+            } else {
+                merged = merge((Node) c1, (Node) c2, level - BITS, added);
+            }
+            if (merged != c1) {
+                result = result.with(slot, merged);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        shift = 0;
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Object[] entry : (Iterable<Object[]>) this::entryIterator) {
+            action.accept((K) entry[0], (V) entry[1]);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<Entry<K, V>> iterator() {
+                Iterator<Object[]> it = entryIterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        Object[] entry = it.next();
+                        return new SimpleImmutableEntry<>((K) entry[0], (V) entry[1]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return an iterator over the leaf entries ({key, value} arrays)
+     * of this map in ascending order of key indexes.
+     */
+    private Iterator<Object[]> entryIterator() {
+        return new Iterator<>() {
+
+            private final Deque<Node> nodes = new ArrayDeque<>();
+
+            private final Deque<Integer> positions = new ArrayDeque<>();
+
+            private Object[] next;
+
+            {
+                if (root != null) {
+                    nodes.push(root);
+                    positions.push(0);
+                }
+                advance();
+            }
+
+            private void advance() {
+                next = null;
+                while (!nodes.isEmpty()) {
+                    Node node = nodes.peek();
+                    int pos = positions.pop();
+                    if (pos == node.array.length) {
+                        nodes.pop();
+                        continue;
+                    }
+                    positions.push(pos + 1);
+                    Object child = node.array[pos];
+                    if (child instanceof Node n) {
+                        nodes.push(n);
+                        positions.push(0);
+                    } else {
+                        next = (Object[]) child;
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Object[] result = next;
+                advance();
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PersistentIndexableMap<?, ?> that) {
+            if (size != that.size) {
+                return false;
+            }
+            if (root == null || that.root == null) {
+                return root == that.root;
+            }
+            // after trimming the single-child paths above the nodes
+            // covering index 0, two maps of the same mappings have
+            // roots at the same level
+            Node n1 = root, n2 = that.root;
+            int s1 = shift, s2 = that.shift;
+            while (s1 > s2) {
+                if (n1.bitmap != 1) {
+                    return false;
+                }
+                n1 = (Node) n1.array[0];
+                s1 -= BITS;
+            }
+            while (s2 > s1) {
+                if (n2.bitmap != 1) {
+                    return false;
+                }
+                n2 = (Node) n2.array[0];
+                s2 -= BITS;
+            }
+            return equals(n1, n2, s1);
+        }
+        return super.equals(o);
+    }
+
+    private static boolean equals(Node n1, Node n2, int level) {
+        if (n1 == n2) {
+            return true;
+        }
+        if (n1.bitmap != n2.bitmap) {
+            return false;
+        }
+        for (int i = 0; i < n1.array.length; ++i) {
+            Object c1 = n1.array[i], c2 = n2.array[i];
+            if (level == 0) {
+                Object[] e1 = (Object[]) c1, e2 = (Object[]) c2;
+                if (e1 != e2 && (e1[0] != e2[0] || !e1[1].equals(e2[1]))) {
+                    return false;
+                }
+            } else if (!equals((Node) c1, (Node) c2, level - BITS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Immutable node of the trie. At the bottom level, the elements of
+     * {@link #array} are the {key, value} entries; at the other levels,
+     * they are the child nodes.
+     */
+    private static final class Node {
+
+        /**
+         * The i-th bit is set if the i-th slot of this node is present.
+         */
+        private final int bitmap;
+
+        /**
+         * The present slots, in ascending order.
+         */
+        private final Object[] array;
+
+        private Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private static Node singleton(int slot, Object child) {
+            return new Node(1 << slot, new Object[]{ child });
+        }
+
+        private Object get(int slot) {
+            int bit = 1 << slot;
+            return (bitmap & bit) == 0 ? null
+                    : array[Integer.bitCount(bitmap & (bit - 1))];
+        }
+
+        /**
+         * @return a copy of this node with given slot set to given child.
+         */
+        private Node with(int slot, Object child) {
+            int bit = 1 << slot;
+            int pos = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) != 0) {
+                Object[] newArray = array.clone();
+                newArray[pos] = child;
+                return new Node(bitmap, newArray);
+            }
+            Object[] newArray = new Object[array.length + 1];
+            System.arraycopy(array, 0, newArray, 0, pos);
+            newArray[pos] = child;
+            System.arraycopy(array, pos, newArray, pos + 1, array.length - pos);
+            return new Node(bitmap | bit, newArray);
+        }
+
+        /**
+         * @return a copy of this node without given slot,
+         * or null if the resulting node is empty.
+         */
+        private Node without(int slot) {
+            int bit = 1 << slot;
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            if (array.length == 1) {
+                return null;
+            }
+            int pos = Integer.bitCount(bitmap & (bit - 1));
+            Object[] newArray = new Object[array.length - 1];
+            System.arraycopy(array, 0, newArray, 0, pos);
+            System.arraycopy(array, pos + 1, newArray, pos, newArray.length - pos);
+            return new Node(bitmap & ~bit, newArray);
+        }
+
+        /**
+         * @return number of entries in the subtree rooted by this node.
+         */
+        private int count(int level) {
+            if (level == 0) {
+                return array.length;
+            }
+            int count = 0;
+            for (Object child : array) {
+                count += ((Node) child).count(level - BITS);
+            }
+            return count;
+        }
+    }
+}
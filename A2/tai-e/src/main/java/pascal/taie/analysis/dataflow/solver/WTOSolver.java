@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.graph.ReverseGraph;
+
+import java.util.List;
+
+/**
+ * Solver which follows the recursive iteration strategy over
+ * the {@link WeakTopologicalOrder} of the CFG (or reverse CFG for
+ * backward analysis): the elements are evaluated in topological order,
+ * and each component is stabilized by repeatedly evaluating its head
+ * and then its nested elements until the fact of the head stops changing.
+ * <p>
+ * Only the heads of components need to be re-evaluated to detect
+ * stabilization, which reduces node evaluations on deeply nested loops,
+ * and the heads are exactly the widening points where
+ * {@link DataflowAnalysis#widen} is applied for analyses which
+ * {@link DataflowAnalysis#needWidening() need widening}.
+ */
+class WTOSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    WTOSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        List<Node> order = PriorityWorkListSolver.reversePostOrder(
+                cfg, cfg.getEntry(), cfg::getSuccsOf);
+        WeakTopologicalOrder<Node> wto = new WeakTopologicalOrder<>(
+                cfg, PriorityWorkListSolver.indexNodes(order));
+        solve(wto.getElements(), cfg, result);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        List<Node> order = PriorityWorkListSolver.reversePostOrder(
+                cfg, cfg.getExit(), cfg::getPredsOf);
+        WeakTopologicalOrder<Node> wto = new WeakTopologicalOrder<>(
+                new ReverseGraph<>(cfg), PriorityWorkListSolver.indexNodes(order));
+        solve(wto.getElements(), cfg, result);
+    }
+
+    private void solve(List<WeakTopologicalOrder.Element<Node>> elements,
+                       CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        for (WeakTopologicalOrder.Element<Node> element : elements) {
+            if (element instanceof WeakTopologicalOrder.Component<Node> component) {
+                boolean first = true;
+                while (evaluate(component.head(), true, cfg, result) || first) {
+                    first = false;
+                    solve(component.children(), cfg, result);
+                }
+            } else {
+                evaluate(element.getHead(), false, cfg, result);
+            }
+        }
+    }
+
+    /**
+     * Evaluates given node, i.e., meets the facts of its predecessors
+     * (successors in backward analysis) and performs the node transfer.
+     *
+     * @param isHead whether the node is a head of component,
+     *               i.e., a widening point
+     * @return true if the transfer changed the out (in) fact of the node
+     * in forward (backward) analysis, otherwise false.
+     */
+    private boolean evaluate(Node node, boolean isHead,
+                             CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        boolean widen = isHead && analysis.needWidening();
+        Fact in = result.getInFact(node);
+        Fact out = result.getOutFact(node);
+        if (analysis.isForward()) {
+            Fact previous = widen ? copy(in, cfg) : null;
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            if (widen) {
+                analysis.widen(node, previous, in);
+            }
+        } else {
+            Fact previous = widen ? copy(out, cfg) : null;
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            if (widen) {
+                analysis.widen(node, previous, out);
+            }
+        }
+        return analysis.transferNode(node, in, out);
+    }
+
+    /**
+     * Copies a fact by meeting it into a new initial fact,
+     * which is the identity of the meet operation.
+     */
+    private Fact copy(Fact fact, CFG<Node> cfg) {
+        Fact copy = analysis.newInitialFact(cfg);
+        analysis.meetInto(fact, copy);
+        return copy;
+    }
+}
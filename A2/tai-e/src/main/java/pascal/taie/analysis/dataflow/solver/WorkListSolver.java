@@ -23,7 +23,7 @@
 package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
 import java.util.*;
@@ -36,7 +36,7 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     }
 
     @Override
-    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         // TODO - finish me
         Queue<Node> queue = new LinkedList<>(cfg.getNodes());
         while (!queue.isEmpty()) {
@@ -59,7 +59,7 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     }
 
     @Override
-    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         throw new UnsupportedOperationException();
     }
 }
@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+import pascal.taie.util.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Basic-block view of a {@link CFG}, whose nodes are the
+ * {@link BasicBlock}s of the CFG. The entry and exit nodes
+ * of the CFG always form blocks on their own.
+ *
+ * @param <N> type of CFG nodes.
+ */
+public class BlockCFG<N> implements Graph<BasicBlock<N>> {
+
+    /**
+     * Key of the block view in the {@link pascal.taie.ir.IR} of the CFG.
+     */
+    public static final String ID = "block-cfg";
+
+    private final CFG<N> cfg;
+
+    private final List<BasicBlock<N>> blocks = new ArrayList<>();
+
+    private final Map<N, BasicBlock<N>> blockOf;
+
+    private final List<Set<BasicBlock<N>>> preds = new ArrayList<>();
+
+    private final List<Set<BasicBlock<N>>> succs = new ArrayList<>();
+
+    private BlockCFG(CFG<N> cfg) {
+        this.cfg = cfg;
+        this.blockOf = Maps.newMap(cfg.getNumberOfNodes());
+        build();
+    }
+
+    /**
+     * @return the block view of given CFG. The view is built only once
+     * per IR, and is stored as a result of the IR.
+     */
+    public static <N> BlockCFG<N> of(CFG<N> cfg) {
+        BlockCFG<N> blockCFG = cfg.getIR().getResult(ID,
+                () -> new BlockCFG<>(cfg));
+        // the stored view may be built on another CFG of the same IR
+        return blockCFG.cfg == cfg ? blockCFG : new BlockCFG<>(cfg);
+    }
+
+    private void build() {
+        // first, build the blocks starting at the heads
+        for (N node : cfg) {
+            if (isHead(node)) {
+                addBlock(node);
+            }
+        }
+        // then, the remaining nodes are in cycles without any head,
+        // which are unreachable from the entry; break them at any node
+        for (N node : cfg) {
+            if (!blockOf.containsKey(node)) {
+                addBlock(node);
+            }
+        }
+        for (BasicBlock<N> block : blocks) {
+            Set<BasicBlock<N>> blockPreds = Sets.newHybridSet();
+            cfg.getPredsOf(block.getFirst()).forEach(
+                    pred -> blockPreds.add(blockOf.get(pred)));
+            preds.add(Collections.unmodifiableSet(blockPreds));
+            Set<BasicBlock<N>> blockSuccs = Sets.newHybridSet();
+            cfg.getSuccsOf(block.getLast()).forEach(
+                    succ -> blockSuccs.add(blockOf.get(succ)));
+            succs.add(Collections.unmodifiableSet(blockSuccs));
+        }
+    }
+
+    /**
+     * @return true if given node starts a basic block.
+     */
+    private boolean isHead(N node) {
+        if (cfg.isEntry(node) || cfg.isExit(node)) {
+            return true;
+        }
+        Set<N> nodePreds = cfg.getPredsOf(node);
+        if (nodePreds.size() != 1) {
+            return true;
+        }
+        N pred = nodePreds.iterator().next();
+        return pred == node || cfg.isEntry(pred)
+                || cfg.getSuccsOf(pred).size() != 1;
+    }
+
+    /**
+     * Adds the block starting at given node.
+     */
+    private void addBlock(N head) {
+        List<N> nodes = new ArrayList<>();
+        N node = head;
+        while (true) {
+            nodes.add(node);
+            if (cfg.isEntry(node) || cfg.isExit(node)) {
+                break;
+            }
+            Set<N> nodeSuccs = cfg.getSuccsOf(node);
+            if (nodeSuccs.size() != 1) {
+                break;
+            }
+            N succ = nodeSuccs.iterator().next();
+            if (succ == head || isHead(succ)) {
+                break;
+            }
+            node = succ;
+        }
+        BasicBlock<N> block = new BasicBlock<>(blocks.size(), nodes);
+        blocks.add(block);
+        nodes.forEach(n -> blockOf.put(n, block));
+    }
+
+    /**
+     * @return the CFG of this block view.
+     */
+    public CFG<N> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the block containing the entry node of the CFG.
+     */
+    public BasicBlock<N> getEntry() {
+        return blockOf.get(cfg.getEntry());
+    }
+
+    /**
+     * @return the block containing the exit node of the CFG.
+     */
+    public BasicBlock<N> getExit() {
+        return blockOf.get(cfg.getExit());
+    }
+
+    /**
+     * @return the block containing given node,
+     * or null if the node is not in the CFG.
+     */
+    public BasicBlock<N> getBlockOf(N node) {
+        return blockOf.get(node);
+    }
+
+    @Override
+    public boolean hasNode(BasicBlock<N> block) {
+        return block.getIndex() < blocks.size()
+                && blocks.get(block.getIndex()) == block;
+    }
+
+    @Override
+    public boolean hasEdge(BasicBlock<N> source, BasicBlock<N> target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getPredsOf(BasicBlock<N> block) {
+        return preds.get(block.getIndex());
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getSuccsOf(BasicBlock<N> block) {
+        return succs.get(block.getIndex());
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getNodes() {
+        return Views.toMappedSet(blocks, b -> b);
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.size();
+    }
+
+    /**
+     * @return the blocks of this view, ordered by their indexes.
+     */
+    public List<BasicBlock<N>> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+}
@@ -66,4 +66,22 @@ public class CPTest {
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
+
+    @Test
+    public void testBaselineSolver() {
+        Tests.test("BranchConstant", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;solver:baseline");
+    }
+
+    @Test
+    public void testPersistentFact() {
+        Tests.test("SimpleBranch", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;fact:persistent");
+    }
+
+    @Test
+    public void testIntFact() {
+        Tests.test("SimpleBinary", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;fact:int");
+    }
 }
@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -19,12 +20,23 @@ application {
 
 tasks.compileJava { options.encoding = "UTF-8" }
 tasks.compileTestJava { options.encoding = "UTF-8" }
+tasks.named<JavaCompile>("compileJmhJava") { options.encoding = "UTF-8" }
 
 tasks.test {
     useJUnit()
     maxHeapSize = "4G"
 }
 
+jmh {
+    // run with: ./gradlew jmh [-PjmhIncludes=<regex of benchmarks>]
+    findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    jvmArgs.addAll("-Xmx4G", "-Dtaie.dir=${projectDir.absolutePath}")
+    resultFormat.set("JSON")
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
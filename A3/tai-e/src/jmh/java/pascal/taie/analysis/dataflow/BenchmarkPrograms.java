@@ -0,0 +1,107 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds the programs analyzed by the benchmarks. A program is either
+ * a test case under {@code src/test/resources/dataflow/deadcode},
+ * e.g., "Loops", or a synthetic program generated by
+ * {@link SyntheticPrograms}, e.g., "DeepLoops".
+ */
+final class BenchmarkPrograms {
+
+    private BenchmarkPrograms() {
+    }
+
+    /**
+     * Test cases of the benchmarks are resolved against this directory,
+     * which is given by system property "taie.dir" (set by the jmh task)
+     * and defaults to the working directory.
+     */
+    private static final Path TAIE_DIR = Paths.get(
+            System.getProperty("taie.dir", "."));
+
+    private static final Path TEST_CASES = TAIE_DIR.resolve(
+            "src/test/resources/dataflow/deadcode");
+
+    /**
+     * The sources of each synthetic program are generated into its own
+     * subdirectory of this directory, which is overwritten by every run,
+     * so that the benchmarks do not leave temporary files behind.
+     */
+    private static final Path SYNTHETIC_PROGRAMS = TAIE_DIR.resolve(
+            "build/jmh/synthetic");
+
+    /**
+     * Builds the world for given program, and returns the IRs of
+     * the methods of the program, whose CFGs have been built.
+     */
+    static List<IR> load(String program) {
+        Path classPath;
+        if (SyntheticPrograms.isSynthetic(program)) {
+            try {
+                classPath = Files.createDirectories(
+                        SYNTHETIC_PROGRAMS.resolve(program));
+                SyntheticPrograms.write(program, classPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            classPath = TEST_CASES;
+        }
+        Main.main(new String[]{
+                "-pp",
+                "-cp", classPath.toAbsolutePath().toString(),
+                "-m", program,
+                "-a", CFGBuilder.ID,
+        });
+        List<IR> irs = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .sorted(Comparator.comparing(JMethod::toString))
+                .map(JMethod::getIR)
+                .filter(ir -> ir.getResult(CFGBuilder.ID) != null)
+                .toList();
+        if (irs.isEmpty()) {
+            throw new IllegalStateException("No CFGs are built for " + program);
+        }
+        return irs;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures constant propagation on all methods of a program
+ * with different solvers and fact implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConstPropBenchmark {
+
+    @Param({"Loops", "UnreachableSwitchBranch",
+            "DeepLoops", "WideSwitch", "ManyVars"})
+    public String program;
+
+    @Param({"priority", "wto", "block", "baseline"})
+    public String solver;
+
+    @Param({"map", "persistent", "int"})
+    public String fact;
+
+    private List<IR> irs;
+
+    private ConstantPropagation analysis;
+
+    @Setup
+    public void setUp() {
+        irs = BenchmarkPrograms.load(program);
+        analysis = new ConstantPropagation(new AnalysisConfig(
+                ConstantPropagation.ID, "edge-refine", false,
+                "solver", solver, "fact", fact));
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(analysis.analyze(ir));
+        }
+    }
+}
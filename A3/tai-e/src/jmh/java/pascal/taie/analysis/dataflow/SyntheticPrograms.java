@@ -0,0 +1,140 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Generates the sources of huge synthetic methods which stress
+ * the data-flow solvers in different ways:
+ * <ul>
+ *     <li>"DeepLoops": deeply nested loops, which require many
+ *     iterations before the facts of the loops stabilize</li>
+ *     <li>"WideSwitch": a switch with thousands of cases inside a loop,
+ *     which produces nodes with thousands of predecessors</li>
+ *     <li>"ManyVars": thousands of variables in long straight-line
+ *     code with branches, which produces large facts</li>
+ * </ul>
+ */
+final class SyntheticPrograms {
+
+    private SyntheticPrograms() {
+    }
+
+    private static final Set<String> PROGRAMS = Set.of(
+            "DeepLoops", "WideSwitch", "ManyVars");
+
+    private static final int LOOP_DEPTH = 24;
+
+    private static final int LOOP_NESTS = 16;
+
+    private static final int SWITCH_CASES = 2000;
+
+    private static final int VARS = 2000;
+
+    static boolean isSynthetic(String program) {
+        return PROGRAMS.contains(program);
+    }
+
+    /**
+     * Writes the source of given program to given directory.
+     */
+    static void write(String program, Path dir) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("public class ").append(program).append(" {\n\n");
+        sb.append("    public static void main(String[] args) {\n");
+        sb.append("        run(args.length);\n");
+        sb.append("    }\n\n");
+        sb.append("    static int run(int n) {\n");
+        switch (program) {
+            case "DeepLoops" -> deepLoops(sb);
+            case "WideSwitch" -> wideSwitch(sb);
+            case "ManyVars" -> manyVars(sb);
+            default -> throw new IllegalArgumentException(program);
+        }
+        sb.append("    }\n");
+        sb.append("}\n");
+        Files.writeString(dir.resolve(program + ".java"), sb);
+    }
+
+    private static void deepLoops(StringBuilder sb) {
+        sb.append("        int r = 0;\n");
+        for (int d = 0; d < LOOP_DEPTH; ++d) {
+            sb.append("        int x").append(d).append(" = ").append(d).append(";\n");
+        }
+        for (int nest = 0; nest < LOOP_NESTS; ++nest) {
+            for (int d = 0; d < LOOP_DEPTH; ++d) {
+                String i = "i" + nest + "_" + d;
+                sb.append("        for (int ").append(i).append(" = 0; ")
+                        .append(i).append(" < n; ++").append(i).append(") {\n");
+                sb.append("        x").append(d).append(" = x")
+                        .append((d + 1) % LOOP_DEPTH).append(" + ").append(i).append(";\n");
+                sb.append("        if (x").append(d).append(" > ").append(nest)
+                        .append(") { r = r + x").append(d).append("; }\n");
+            }
+            for (int d = 0; d < LOOP_DEPTH; ++d) {
+                sb.append("        }\n");
+            }
+        }
+        sb.append("        return r;\n");
+    }
+
+    private static void wideSwitch(StringBuilder sb) {
+        sb.append("        int a = 0;\n");
+        sb.append("        int b = 1;\n");
+        sb.append("        for (int i = 0; i < n; ++i) {\n");
+        sb.append("            switch (i + a) {\n");
+        for (int c = 0; c < SWITCH_CASES; ++c) {
+            sb.append("                case ").append(c).append(": a = ").append(c)
+                    .append("; b = a + b; break;\n");
+        }
+        sb.append("                default: a = 0;\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("        return a + b;\n");
+    }
+
+    private static void manyVars(StringBuilder sb) {
+        sb.append("        int v0 = n;\n");
+        for (int v = 1; v < VARS; ++v) {
+            sb.append("        int v").append(v).append(" = v").append(v - 1)
+                    .append(" + ").append(v).append(";\n");
+        }
+        sb.append("        for (int i = 0; i < n; ++i) {\n");
+        for (int v = 1; v < VARS; ++v) {
+            if (v % 10 == 0) {
+                sb.append("            if (v").append(v).append(" > i) { v")
+                        .append(v).append(" = v").append(v - 10).append("; }\n");
+            } else {
+                sb.append("            v").append(v).append(" = v").append(v - 1)
+                        .append(" * ").append(v).append(";\n");
+            }
+        }
+        sb.append("        }\n");
+        sb.append("        return v").append(VARS - 1).append(";\n");
+    }
+}
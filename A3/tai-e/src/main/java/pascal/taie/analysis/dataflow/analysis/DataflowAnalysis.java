@@ -49,12 +49,45 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * @return new initial fact for non-boundary nodes of given CFG.
+     * Analyses whose facts depend on the method being analyzed, e.g.,
+     * facts indexed by the variables of the method, should override
+     * this method; by default it falls back to {@link #newInitialFact()}.
+     */
+    default Fact newInitialFact(CFG<Node> cfg) {
+        return newInitialFact();
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
      */
     void meetInto(Fact fact, Fact target);
 
+    /**
+     * @return true if this analysis needs widening to terminate, e.g.,
+     * its lattice has infinite ascending chains, otherwise false.
+     * Solvers which support widening only apply {@link #widen} when
+     * this method returns true.
+     */
+    default boolean needWidening() {
+        return false;
+    }
+
+    /**
+     * Widening operator of this analysis, which is applied to the flowing-in
+     * (flowing-out) fact of the widening points in forward (backward)
+     * analysis, i.e., the heads of loops, before the node transfer.
+     *
+     * @param node     the widening point
+     * @param previous the fact of the node before current iteration
+     * @param fact     the fact of the node in current iteration, which
+     *                 should be updated in place to the widened fact
+     */
+    default void widen(Node node, Fact previous, Fact fact) {
+    }
+
     /**
      * Node Transfer function for the analysis.
      * The function transfers data-flow from in (out) fact to out (in) fact
@@ -25,8 +25,9 @@ package pascal.taie.analysis.dataflow.analysis;
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.SCCPResult;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
@@ -58,14 +59,27 @@ public class DeadCodeDetection extends MethodAnalysis {
         // obtain CFG
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
         // obtain result of constant propagation
-        DataflowResult<Stmt, CPFact> constants =
+        NodeResult<Stmt, CPFact> constants =
                 ir.getResult(ConstantPropagation.ID);
         // obtain result of live variable analysis
-        DataflowResult<Stmt, SetFact<Var>> liveVars =
+        NodeResult<Stmt, SetFact<Var>> liveVars =
                 ir.getResult(LiveVariableAnalysis.ID);
         // keep statements (dead code) sorted in the resulting set
         Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
         // TODO - finish me
+        if (constants instanceof SCCPResult sccpResult) {
+            // unreachable code has been found by sparse conditional
+            // constant propagation, so we only need to detect dead
+            // assignments among the executable statements
+            deadCode.addAll(sccpResult.getUnreachable());
+            for (Stmt stmt : cfg) {
+                if (stmt instanceof AssignStmt && sccpResult.isExecutable(stmt)
+                        && isDeadAssignment(stmt, liveVars)) {
+                    deadCode.add(stmt);
+                }
+            }
+            return deadCode;
+        }
 
         Stmt entry = cfg.getEntry();
         Set<Stmt> reachableSet = new HashSet<>();
@@ -106,7 +120,7 @@ public class DeadCodeDetection extends MethodAnalysis {
         return deadCode;
     }
 
-    private static Stmt getFollowingControlStmt(Stmt stmt, DataflowResult<Stmt, CPFact> constants, Set<Edge<Stmt>> outEdges) {
+    private static Stmt getFollowingControlStmt(Stmt stmt, NodeResult<Stmt, CPFact> constants, Set<Edge<Stmt>> outEdges) {
         Stmt followingStmt = null;
         if (stmt instanceof If) {
             followingStmt = getFollowingIfStmt((If) stmt, constants, outEdges);
@@ -118,7 +132,7 @@ public class DeadCodeDetection extends MethodAnalysis {
     }
 
 
-    private static boolean isDeadAssignment(Stmt stmt, DataflowResult<Stmt, SetFact<Var>> liveVars) {
+    private static boolean isDeadAssignment(Stmt stmt, NodeResult<Stmt, SetFact<Var>> liveVars) {
         AssignStmt<Var, RValue> assignStmt = ((AssignStmt<Var, RValue>) stmt);
         SetFact<Var> result = liveVars.getResult(stmt);
         Var var = assignStmt.getLValue();
@@ -149,7 +163,7 @@ public class DeadCodeDetection extends MethodAnalysis {
         return true;
     }
 
-    private static Stmt getFollowingIfStmt(If ifStmt, DataflowResult<Stmt, CPFact> constants, Set<Edge<Stmt>> outEdges) {
+    private static Stmt getFollowingIfStmt(If ifStmt, NodeResult<Stmt, CPFact> constants, Set<Edge<Stmt>> outEdges) {
         CPFact cpFact = constants.getResult(ifStmt);
         ConditionExp exp = ifStmt.getCondition();
         Value value = ConstantPropagation.evaluate(exp, cpFact);
@@ -166,7 +180,7 @@ public class DeadCodeDetection extends MethodAnalysis {
                 .orElse(null);
     }
 
-    private static Stmt getFollowingSwitchStmt(SwitchStmt switchStmt, DataflowResult<Stmt, CPFact> constants) {
+    private static Stmt getFollowingSwitchStmt(SwitchStmt switchStmt, NodeResult<Stmt, CPFact> constants) {
         Var var = switchStmt.getVar();
         CPFact cpFact = constants.getResult(switchStmt);
         Value value = ConstantPropagation.evaluate(var, cpFact);
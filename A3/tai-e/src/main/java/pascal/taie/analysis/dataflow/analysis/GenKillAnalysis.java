@@ -0,0 +1,249 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.IndexedSetFact;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Indexable;
+
+import java.util.List;
+
+/**
+ * Base class for gen/kill data-flow analyses, whose transfer function
+ * of each node is {@code gen | (fact & ~kill)} with fixed gen and kill
+ * sets, e.g., live variables, reaching definitions and available
+ * expressions.
+ * <p>
+ * By default, the facts are {@link IndexedSetFact}s over the universe given
+ * by {@link #getUniverse(CFG)}, and plain {@link SetFact}s can be selected
+ * with option "fact" for comparison. The gen and kill sets of all nodes of a CFG
+ * are computed once as bit vectors before solving the CFG, so that
+ * the transfer of each node is performed word by word in place,
+ * without allocating any objects, if the facts are indexed. The gen and kill sets are kept by
+ * a {@link CFGGenKillAnalysis} created for each CFG, on which the
+ * solver runs, so that different CFGs can be analyzed concurrently.
+ * As in {@link pascal.taie.analysis.dataflow.fact.IndexedDataflowResult},
+ * they are stored in an array indexed by the indexes of the nodes,
+ * thus the nodes of the CFGs must be the statements of their IRs.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of fact elements
+ */
+public abstract class GenKillAnalysis<Node, E extends Indexable>
+        extends AbstractDataflowAnalysis<Node, SetFact<E>> {
+
+    private final String solverKind;
+
+    /**
+     * Whether the facts are {@link IndexedSetFact}s, as given by option
+     * "fact", i.e., "indexed" (default) or "set" ({@link SetFact}).
+     */
+    private final boolean indexedFact;
+
+    protected GenKillAnalysis(AnalysisConfig config) {
+        super(config);
+        solverKind = getOptions().getString("solver");
+        String fact = getOptions().getString("fact");
+        indexedFact = switch (fact == null ? "indexed" : fact) {
+            case "indexed" -> true;
+            case "set" -> false;
+            default -> throw new ConfigException("Unknown gen/kill fact: " + fact);
+        };
+    }
+
+    /**
+     * @return the universe of facts for given CFG, where each element
+     * is located at its index, see {@link IndexedSetFact}.
+     */
+    protected abstract List<E> getUniverse(CFG<Node> cfg);
+
+    /**
+     * Adds the elements generated by given node to {@code gen},
+     * and the elements killed by the node to {@code kill}.
+     */
+    protected abstract void computeGenKill(Node node, SetFact<E> gen, SetFact<E> kill);
+
+    @Override
+    public NodeResult<Node, SetFact<E>> analyze(IR ir) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        return Solver.makeSolver(new CFGGenKillAnalysis(cfg), solverKind)
+                .solve(cfg);
+    }
+
+    /**
+     * @return a new empty fact of the kind given by option "fact".
+     */
+    private SetFact<E> newFact(List<E> universe) {
+        return indexedFact ? new IndexedSetFact<>(universe) : new SetFact<>();
+    }
+
+    private GenKill<E> computeGenKill(Node node, List<E> universe) {
+        SetFact<E> gen = newFact(universe);
+        SetFact<E> kill = newFact(universe);
+        computeGenKill(node, gen, kill);
+        return new GenKill<>(gen, kill);
+    }
+
+    @Override
+    public SetFact<E> newBoundaryFact(CFG<Node> cfg) {
+        return newFact(getUniverse(cfg));
+    }
+
+    @Override
+    public SetFact<E> newInitialFact(CFG<Node> cfg) {
+        return newFact(getUniverse(cfg));
+    }
+
+    /**
+     * Transfers given node with gen and kill sets computed on the fly.
+     * The solving of {@link #analyze(IR)} does not go through this method,
+     * but uses the gen and kill sets computed in advance for the CFG.
+     */
+    @Override
+    public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+        SetFact<E> source = isForward() ? in : out;
+        GenKill<E> genKill;
+        if (source instanceof IndexedSetFact<E> indexedSource) {
+            genKill = computeGenKill(node, indexedSource.getUniverse());
+        } else {
+            SetFact<E> gen = new SetFact<>();
+            SetFact<E> kill = new SetFact<>();
+            computeGenKill(node, gen, kill);
+            genKill = new GenKill<>(gen, kill);
+        }
+        return transferNode(genKill, in, out);
+    }
+
+    private boolean transferNode(GenKill<E> genKill, SetFact<E> in, SetFact<E> out) {
+        SetFact<E> source = isForward() ? in : out;
+        SetFact<E> target = isForward() ? out : in;
+        if (target instanceof IndexedSetFact<E> indexedTarget
+                && genKill.gen() instanceof IndexedSetFact<E> gen
+                && genKill.kill() instanceof IndexedSetFact<E> kill) {
+            return indexedTarget.unionGenKill(source, gen, kill);
+        }
+        SetFact<E> result = source.copy();
+        result.diff(genKill.kill());
+        result.union(genKill.gen());
+        return target.union(result);
+    }
+
+    private record GenKill<E>(SetFact<E> gen, SetFact<E> kill) {
+    }
+
+    /**
+     * The analysis of a single CFG, which holds the gen and kill sets
+     * of the nodes of the CFG, and delegates the other operations to
+     * the enclosing {@link GenKillAnalysis}.
+     */
+    private class CFGGenKillAnalysis implements DataflowAnalysis<Node, SetFact<E>> {
+
+        private final List<E> universe;
+
+        private final Node entry;
+
+        private final Node exit;
+
+        /**
+         * Gen and kill sets of the nodes, indexed by the indexes of the
+         * nodes. As the entry and exit nodes of a CFG are not in the IR,
+         * their gen and kill sets are stored in the last two slots.
+         */
+        private final GenKill<E>[] summaries;
+
+        @SuppressWarnings("unchecked")
+        private CFGGenKillAnalysis(CFG<Node> cfg) {
+            universe = getUniverse(cfg);
+            entry = cfg.getEntry();
+            exit = cfg.getExit();
+            int nStmts = cfg.getIR().getStmts().size();
+            summaries = new GenKill[nStmts + 2];
+            for (Node node : cfg) {
+                summaries[getSlot(node)] = computeGenKill(node, universe);
+            }
+        }
+
+        private int getSlot(Node node) {
+            if (node == entry) {
+                return summaries.length - 2;
+            } else if (node == exit) {
+                return summaries.length - 1;
+            } else if (node instanceof Indexable indexable
+                    && indexable.getIndex() >= 0
+                    && indexable.getIndex() < summaries.length - 2) {
+                return indexable.getIndex();
+            }
+            throw new AnalysisException(node + " is not a statement of the IR");
+        }
+
+        @Override
+        public boolean isForward() {
+            return GenKillAnalysis.this.isForward();
+        }
+
+        @Override
+        public SetFact<E> newBoundaryFact(CFG<Node> cfg) {
+            return newFact(universe);
+        }
+
+        @Override
+        public SetFact<E> newInitialFact() {
+            return newFact(universe);
+        }
+
+        @Override
+        public SetFact<E> newInitialFact(CFG<Node> cfg) {
+            return newFact(universe);
+        }
+
+        @Override
+        public void meetInto(SetFact<E> fact, SetFact<E> target) {
+            GenKillAnalysis.this.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+            return GenKillAnalysis.this.transferNode(summaries[getSlot(node)], in, out);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Node> edge) {
+            return GenKillAnalysis.this.needTransferEdge(edge);
+        }
+
+        @Override
+        public SetFact<E> transferEdge(Edge<Node> edge, SetFact<E> nodeFact) {
+            return GenKillAnalysis.this.transferEdge(edge, nodeFact);
+        }
+    }
+}
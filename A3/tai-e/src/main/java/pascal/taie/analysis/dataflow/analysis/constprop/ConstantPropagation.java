@@ -23,8 +23,11 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.DefinitionStmt;
@@ -34,14 +37,45 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether performs sparse conditional constant propagation,
+     * see {@link SCCPSolver}.
+     */
+    private final boolean sccp;
+
+    /**
+     * Creates data-flow facts of the kind given by option "fact", i.e.,
+     * "map" ({@link CPFact}), "persistent" ({@link PersistentCPFact})
+     * or "int" ({@link IntCPFact}).
+     */
+    private final Supplier<CPFact> factFactory;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sccp = getOptions().getBooleanOrDefault("sccp", false);
+        String fact = getOptions().getString("fact");
+        factFactory = switch (fact == null ? "map" : fact) {
+            case "map" -> CPFact::new;
+            case "persistent" -> PersistentCPFact::new;
+            case "int" -> IntCPFact::new;
+            default -> throw new ConfigException("Unknown constprop fact: " + fact);
+        };
+    }
+
+    @Override
+    public NodeResult<Stmt, CPFact> analyze(IR ir) {
+        if (sccp) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SCCPSolver(this).solve(cfg);
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -52,7 +86,7 @@ public class ConstantPropagation extends
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        CPFact cpFact = new CPFact();
+        CPFact cpFact = newFact();
         List<Var> varList = cfg.getIR().getParams();
         for (Var var : varList) {
             if (canHoldInt(var)) {
@@ -65,12 +99,22 @@ public class ConstantPropagation extends
     @Override
     public CPFact newInitialFact() {
         // TODO - finish me
-        return new CPFact();
+        return newFact();
+    }
+
+    private CPFact newFact() {
+        return factFactory.get();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        if (fact instanceof IntCPFact intFact
+                && target instanceof IntCPFact intTarget) {
+            intFact.forEachCode((var, code) -> intTarget.updateCode(
+                    var, meetValue(code, intTarget.getCode(var))));
+            return;
+        }
         fact.forEach((var, value) -> {
             Value targetValue = target.get(var);
             Value newValue = meetValue(value, targetValue);
@@ -98,9 +142,31 @@ public class ConstantPropagation extends
         return Value.getNAC();
     }
 
+    /**
+     * Meets two values encoded as {@link IntCPFact} codes.
+     */
+    public static long meetValue(long v1, long v2) {
+        if (v1 == IntCPFact.UNDEF || v1 == v2) {
+            return v2;
+        }
+        if (v2 == IntCPFact.UNDEF) {
+            return v1;
+        }
+        return IntCPFact.NAC;
+    }
+
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
+        if (in instanceof IntCPFact intIn && out instanceof IntCPFact intOut) {
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && defStmt.getLValue() instanceof Var lValue
+                    && canHoldInt(lValue)) {
+                long value = evaluate(defStmt.getRValue(), intIn);
+                return intOut.copyFrom(intIn, lValue, value);
+            }
+            return intOut.copyFrom(intIn);
+        }
         CPFact copy = in.copy();
         if (stmt instanceof DefinitionStmt) {
             Var lValue = ((DefinitionStmt<Var, RValue>) stmt).getLValue();
@@ -148,7 +214,6 @@ public class ConstantPropagation extends
         } else if (exp instanceof BinaryExp) {
             Var operand1 = ((BinaryExp) exp).getOperand1();
             Var operand2 = ((BinaryExp) exp).getOperand2();
-            BinaryExp.Op operator = ((BinaryExp) exp).getOperator();
             if (!canHoldInt(operand1) || !canHoldInt(operand2)) {
                 return Value.getNAC();
             }
@@ -159,64 +224,100 @@ public class ConstantPropagation extends
                 return Value.getNAC();
             }
 
-            int constant1 = value1.getConstant();
-            int constant2 = value2.getConstant();
-
-            Value result;
-            if (exp instanceof ArithmeticExp) {
-                result = evaluateArithmetic(operator, constant1, constant2);
-            } else if (exp instanceof BitwiseExp) {
-                result = evaluateBitwise(operator, constant1, constant2);
-            } else if (exp instanceof ConditionExp) {
-                result = evaluateCondition(operator, constant1, constant2);
-            } else if (exp instanceof ShiftExp) {
-                result = evaluateShift(operator, constant1, constant2);
-            } else {
-                result = Value.getNAC();
-            }
-            return result;
+            return IntCPFact.decode(evaluate((BinaryExp) exp,
+                    value1.getConstant(), value2.getConstant()));
         } else {
             return Value.getNAC();
         }
     }
 
-    private static Value evaluateShift(BinaryExp.Op operator, int value1, int value2) {
+    /**
+     * Evaluates the value of given expression,
+     * encoded as {@link IntCPFact} code.
+     *
+     * @param exp the expression to be evaluated
+     * @param in  IN fact of the statement
+     * @return the code of resulting value
+     */
+    public static long evaluate(Exp exp, IntCPFact in) {
+        if (exp instanceof IntLiteral literal) {
+            return IntCPFact.makeConstant(literal.getValue());
+        } else if (exp instanceof Var var) {
+            return in.getCode(var);
+        } else if (exp instanceof BinaryExp binaryExp) {
+            Var operand1 = binaryExp.getOperand1();
+            Var operand2 = binaryExp.getOperand2();
+            if (!canHoldInt(operand1) || !canHoldInt(operand2)) {
+                return IntCPFact.NAC;
+            }
+            long value1 = in.getCode(operand1);
+            long value2 = in.getCode(operand2);
+            if (!IntCPFact.isConstant(value1) || !IntCPFact.isConstant(value2)) {
+                return IntCPFact.NAC;
+            }
+            return evaluate(binaryExp, IntCPFact.getConstant(value1),
+                    IntCPFact.getConstant(value2));
+        } else {
+            return IntCPFact.NAC;
+        }
+    }
+
+    /**
+     * @return code of the value of given binary expression
+     * whose operands are the given constants.
+     */
+    private static long evaluate(BinaryExp exp, int constant1, int constant2) {
+        BinaryExp.Op operator = exp.getOperator();
+        if (exp instanceof ArithmeticExp) {
+            return evaluateArithmetic(operator, constant1, constant2);
+        } else if (exp instanceof BitwiseExp) {
+            return evaluateBitwise(operator, constant1, constant2);
+        } else if (exp instanceof ConditionExp) {
+            return evaluateCondition(operator, constant1, constant2);
+        } else if (exp instanceof ShiftExp) {
+            return evaluateShift(operator, constant1, constant2);
+        } else {
+            return IntCPFact.NAC;
+        }
+    }
+
+    private static long evaluateShift(BinaryExp.Op operator, int value1, int value2) {
         return switch ((ShiftExp.Op) operator) {
-            case SHL ->  Value.makeConstant(value1 << value2);
-            case SHR -> Value.makeConstant(value1 >> value2);
-            case USHR -> Value.makeConstant(value1 >>> value2);
+            case SHL ->  IntCPFact.makeConstant(value1 << value2);
+            case SHR -> IntCPFact.makeConstant(value1 >> value2);
+            case USHR -> IntCPFact.makeConstant(value1 >>> value2);
         };
     }
 
-    private static Value evaluateCondition(BinaryExp.Op operator, int value1, int value2) {
+    private static long evaluateCondition(BinaryExp.Op operator, int value1, int value2) {
         return switch ((ConditionExp.Op) operator) {
-            case EQ -> Value.makeConstant(value1 == value2 ? 1 : 0);
-            case NE ->  Value.makeConstant(value1 != value2 ? 1 : 0);
-            case LT -> Value.makeConstant(value1 < value2 ? 1 : 0);
-            case GT -> Value.makeConstant(value1 > value2 ? 1 : 0);
-            case LE -> Value.makeConstant(value1 <= value2 ? 1 : 0);
-            case GE -> Value.makeConstant(value1 >= value2 ? 1 : 0);
+            case EQ -> IntCPFact.makeConstant(value1 == value2 ? 1 : 0);
+            case NE ->  IntCPFact.makeConstant(value1 != value2 ? 1 : 0);
+            case LT -> IntCPFact.makeConstant(value1 < value2 ? 1 : 0);
+            case GT -> IntCPFact.makeConstant(value1 > value2 ? 1 : 0);
+            case LE -> IntCPFact.makeConstant(value1 <= value2 ? 1 : 0);
+            case GE -> IntCPFact.makeConstant(value1 >= value2 ? 1 : 0);
         };
     }
 
-    private static Value evaluateBitwise(BinaryExp.Op operator, int value1, int value2) {
+    private static long evaluateBitwise(BinaryExp.Op operator, int value1, int value2) {
         return switch ((BitwiseExp.Op) operator) {
-            case OR -> Value.makeConstant(value1 | value2);
-            case AND -> Value.makeConstant(value1 & value2);
-            case XOR -> Value.makeConstant(value1 ^ value2);
+            case OR -> IntCPFact.makeConstant(value1 | value2);
+            case AND -> IntCPFact.makeConstant(value1 & value2);
+            case XOR -> IntCPFact.makeConstant(value1 ^ value2);
         };
     }
 
-    private static Value evaluateArithmetic(BinaryExp.Op operator, int value1, int value2) {
+    private static long evaluateArithmetic(BinaryExp.Op operator, int value1, int value2) {
         if ((operator == ArithmeticExp.Op.DIV || operator == ArithmeticExp.Op.REM) && value2 == 0) {
-            return Value.getUndef();
+            return IntCPFact.UNDEF;
         }
         return switch ((ArithmeticExp.Op) operator) {
-            case ADD -> Value.makeConstant(value1 + value2);
-            case SUB -> Value.makeConstant(value1 - value2);
-            case MUL -> Value.makeConstant(value1 * value2);
-            case DIV -> Value.makeConstant(value1 / value2);
-            case REM -> Value.makeConstant(value1 % value2);
+            case ADD -> IntCPFact.makeConstant(value1 + value2);
+            case SUB -> IntCPFact.makeConstant(value1 - value2);
+            case MUL -> IntCPFact.makeConstant(value1 * value2);
+            case DIV -> IntCPFact.makeConstant(value1 / value2);
+            case REM -> IntCPFact.makeConstant(value1 % value2);
         };
     }
 }
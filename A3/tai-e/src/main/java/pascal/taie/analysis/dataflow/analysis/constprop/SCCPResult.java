@@ -0,0 +1,110 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Result of sparse conditional constant propagation. Besides the facts
+ * of the statements, it records the CFG edges and statements that are
+ * found executable, so that the unreachable code falls out of the
+ * same fixpoint as the constants.
+ * <p>
+ * Statements which are not executable keep their initial facts,
+ * i.e., all variables are UNDEF. The facts are kept in
+ * an {@link IndexedDataflowResult} of the CFG.
+ */
+public class SCCPResult implements MutableNodeResult<Stmt, CPFact> {
+
+    private final MutableNodeResult<Stmt, CPFact> facts;
+
+    private final Set<Stmt> executableStmts;
+
+    private final Set<Edge<Stmt>> executableEdges;
+
+    private final Set<Stmt> unreachable;
+
+    SCCPResult(CFG<Stmt> cfg, Set<Stmt> executableStmts,
+               Set<Edge<Stmt>> executableEdges, Set<Stmt> unreachable) {
+        this.facts = IndexedDataflowResult.make(cfg);
+        this.executableStmts = executableStmts;
+        this.executableEdges = executableEdges;
+        this.unreachable = unreachable;
+    }
+
+    @Override
+    public CPFact getInFact(Stmt stmt) {
+        return facts.getInFact(stmt);
+    }
+
+    @Override
+    public void setInFact(Stmt stmt, CPFact fact) {
+        facts.setInFact(stmt, fact);
+    }
+
+    @Override
+    public CPFact getOutFact(Stmt stmt) {
+        return facts.getOutFact(stmt);
+    }
+
+    @Override
+    public void setOutFact(Stmt stmt, CPFact fact) {
+        facts.setOutFact(stmt, fact);
+    }
+
+    /**
+     * @return true if given statement may be executed, otherwise false.
+     */
+    public boolean isExecutable(Stmt stmt) {
+        return executableStmts.contains(stmt);
+    }
+
+    /**
+     * @return true if given CFG edge may be executed, otherwise false.
+     */
+    public boolean isExecutable(Edge<Stmt> edge) {
+        return executableEdges.contains(edge);
+    }
+
+    /**
+     * @return the statements which are never executed, sorted by their
+     * indexes. The exit node of the CFG is excluded.
+     */
+    public Set<Stmt> getUnreachable() {
+        return Collections.unmodifiableSet(unreachable);
+    }
+
+    static Set<Stmt> newStmtSet() {
+        return new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+    }
+}
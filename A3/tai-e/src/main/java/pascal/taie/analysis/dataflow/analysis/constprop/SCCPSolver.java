@@ -0,0 +1,139 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Solver of (sparse) conditional constant propagation, in the style of
+ * M. N. Wegman and F. K. Zadeck, "Constant propagation with conditional
+ * branches", TOPLAS 1991.
+ * <p>
+ * The solver tracks executable CFG edges together with the constants:
+ * a statement is evaluated only after one of its incoming edges becomes
+ * executable, only executable incoming edges contribute to its IN fact,
+ * and the outgoing edges of {@link If} and {@link SwitchStmt} are marked
+ * executable only if the branch condition may take them under the
+ * current IN fact. Thus, the facts of unreachable branches are never
+ * computed, and the unreachable code is known as soon as the fixpoint
+ * is reached.
+ * <p>
+ * Tai-e IR is not in SSA form, so the constants are propagated along
+ * the executable CFG edges instead of SSA def-use edges.
+ */
+class SCCPSolver {
+
+    private final ConstantPropagation cp;
+
+    SCCPSolver(ConstantPropagation cp) {
+        this.cp = cp;
+    }
+
+    SCCPResult solve(CFG<Stmt> cfg) {
+        Set<Stmt> executableStmts = Sets.newSet(cfg.getNumberOfNodes());
+        Set<Edge<Stmt>> executableEdges = Sets.newSet();
+        Set<Stmt> unreachable = SCCPResult.newStmtSet();
+        SCCPResult result = new SCCPResult(
+                cfg, executableStmts, executableEdges, unreachable);
+        for (Stmt node : cfg) {
+            result.setInFact(node, cfg.isEntry(node) ?
+                    cp.newBoundaryFact(cfg) : cp.newInitialFact());
+            result.setOutFact(node, cp.newInitialFact());
+        }
+        Queue<Stmt> workList = new ArrayDeque<>();
+        Set<Stmt> inWorkList = Sets.newSet();
+        Stmt entry = cfg.getEntry();
+        executableStmts.add(entry);
+        workList.add(entry);
+        inWorkList.add(entry);
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            inWorkList.remove(node);
+            CPFact in = result.getInFact(node);
+            for (Edge<Stmt> inEdge : cfg.getInEdgesOf(node)) {
+                if (executableEdges.contains(inEdge)) {
+                    cp.meetInto(result.getOutFact(inEdge.getSource()), in);
+                }
+            }
+            boolean changed = cp.transferNode(node, in, result.getOutFact(node));
+            for (Edge<Stmt> outEdge : cfg.getOutEdgesOf(node)) {
+                if (!isFeasible(outEdge, in)) {
+                    continue;
+                }
+                Stmt target = outEdge.getTarget();
+                // a target needs to be (re-)evaluated when the edge
+                // becomes executable, or when the fact flowing
+                // along the edge changes
+                if ((executableEdges.add(outEdge) | changed)
+                        && inWorkList.add(target)) {
+                    executableStmts.add(target);
+                    workList.add(target);
+                }
+            }
+        }
+        for (Stmt node : cfg) {
+            if (!executableStmts.contains(node) && !cfg.isExit(node)) {
+                unreachable.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the control flow may go through given edge
+     * under the IN fact of the source of the edge, otherwise false.
+     */
+    private static boolean isFeasible(Edge<Stmt> edge, CPFact in) {
+        Stmt source = edge.getSource();
+        if (source instanceof If ifStmt) {
+            Value cond = ConstantPropagation.evaluate(ifStmt.getCondition(), in);
+            return switch (edge.getKind()) {
+                case IF_TRUE -> cond.isNAC() ||
+                        (cond.isConstant() && cond.getConstant() == 1);
+                case IF_FALSE -> cond.isNAC() ||
+                        (cond.isConstant() && cond.getConstant() == 0);
+                default -> true; // exceptional edges
+            };
+        } else if (source instanceof SwitchStmt switchStmt) {
+            Value value = in.get(switchStmt.getVar());
+            if (edge.isSwitchCase()) {
+                return value.isNAC() || (value.isConstant()
+                        && value.getConstant() == edge.getCaseValue());
+            } else if (edge.getKind() == Edge.Kind.SWITCH_DEFAULT) {
+                return value.isNAC() || (value.isConstant()
+                        && !switchStmt.getCaseValues().contains(value.getConstant()));
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Indexable;
+
+import java.util.List;
+
+/**
+ * Data-flow result for CFGs whose nodes are the statements of
+ * the IR, i.e., {@link Indexable} nodes whose indexes are their positions
+ * in {@link pascal.taie.ir.IR#getStmts()}. The facts are stored in arrays
+ * indexed by the nodes; as the entry and exit nodes of a CFG are not
+ * in the IR, their facts are stored in the last two slots of the arrays.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IndexedDataflowResult<Node, Fact> implements MutableNodeResult<Node, Fact> {
+
+    /**
+     * The nodes corresponding to the array slots except the last two.
+     */
+    private final List<?> nodes;
+
+    private final Node entry;
+
+    private final Node exit;
+
+    private final Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    private IndexedDataflowResult(CFG<Node> cfg) {
+        this.nodes = cfg.getIR().getStmts();
+        this.entry = cfg.getEntry();
+        this.exit = cfg.getExit();
+        this.inFacts = new Object[nodes.size() + 2];
+        this.outFacts = new Object[nodes.size() + 2];
+    }
+
+    /**
+     * @return an {@link IndexedDataflowResult} for given CFG if its nodes
+     * are the statements of its IR, otherwise a plain {@link DataflowResult}.
+     */
+    public static <Node, Fact> MutableNodeResult<Node, Fact> make(CFG<Node> cfg) {
+        return isApplicable(cfg) ?
+                new IndexedDataflowResult<>(cfg) : new DataflowResult<>();
+    }
+
+    private static <Node> boolean isApplicable(CFG<Node> cfg) {
+        if (cfg.getIR() == null) {
+            return false;
+        }
+        List<?> stmts = cfg.getIR().getStmts();
+        for (Node node : cfg) {
+            if (!cfg.isEntry(node) && !cfg.isExit(node)
+                    && (!(node instanceof Indexable indexable)
+                    || indexable.getIndex() < 0
+                    || indexable.getIndex() >= stmts.size()
+                    || stmts.get(indexable.getIndex()) != node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the array slot of given node, or -1 if the node
+     * is not in the CFG of this result.
+     */
+    private int getSlot(Node node) {
+        if (node == entry) {
+            return nodes.size();
+        } else if (node == exit) {
+            return nodes.size() + 1;
+        } else if (node instanceof Indexable indexable) {
+            int index = indexable.getIndex();
+            if (index >= 0 && index < nodes.size() && nodes.get(index) == node) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int getSlotOrThrow(Node node) {
+        int slot = getSlot(node);
+        if (slot < 0) {
+            throw new AnalysisException(node + " is not in the CFG of this result");
+        }
+        return slot;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(Node node) {
+        int slot = getSlot(node);
+        return slot < 0 ? null : (Fact) inFacts[slot];
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        inFacts[getSlotOrThrow(node)] = fact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(Node node) {
+        int slot = getSlot(node);
+        return slot < 0 ? null : (Fact) outFacts[slot];
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        outFacts[getSlotOrThrow(node)] = fact;
+    }
+}
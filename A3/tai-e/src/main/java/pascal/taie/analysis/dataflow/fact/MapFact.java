@@ -54,6 +54,18 @@ public class MapFact<K, V> {
         this.map = Maps.newHybridMap(map);
     }
 
+    /**
+     * Constructs a new MapFact over specified Map. Subclasses which provide
+     * their own map representations pass {@code copy = false}, so that
+     * the given map is used directly to hold the mappings.
+     *
+     * @param map  the mappings of this fact.
+     * @param copy whether to copy the mappings of map into a new map.
+     */
+    protected MapFact(Map<K, V> map, boolean copy) {
+        this.map = copy ? Maps.newHybridMap(map) : map;
+    }
+
     /**
      * @return the value to which the specified key is mapped,
      * or null if this map contains no mapping for the key.
@@ -48,6 +48,18 @@ public class SetFact<E> {
         this(Collections.emptySet());
     }
 
+    /**
+     * Constructs a new SetFact over the given set. Subclasses which provide
+     * their own set representations pass {@code copy = false}, so that the
+     * given set is used directly as the backing set of this fact.
+     *
+     * @param set  the elements of this fact.
+     * @param copy whether to copy the elements of set into a new set.
+     */
+    protected SetFact(Set<E> set, boolean copy) {
+        this.set = copy ? Sets.newHybridSet(set) : set;
+    }
+
     /**
      * @return true if this set contains the specified element, otherwise false.
      */
@@ -119,6 +131,15 @@ public class SetFact<E> {
         return result;
     }
 
+    /**
+     * Removes all elements of other fact from this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean diff(SetFact<E> other) {
+        return set.removeAll(other.set);
+    }
+
     /**
      * Sets the content of this set to the same as other set.
      */
@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Work-list solver which always picks the pending node that comes first
+ * in reverse postorder of the CFG (for forward analysis), or in reverse
+ * postorder of the reverse CFG (for backward analysis).
+ * <p>
+ * With this order, a node is typically evaluated after all its
+ * predecessors (successors in backward analysis) except the ones
+ * reaching it via loop back edges, which greatly reduces the number
+ * of node evaluations before the facts of loops stabilize.
+ * The work-list is a bit set indexed by the position of the nodes in
+ * the order, so that pending nodes are never queued more than once.
+ */
+class PriorityWorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    PriorityWorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        List<Node> order = reversePostOrder(cfg, cfg.getEntry(), cfg::getSuccsOf);
+        Map<Node, Integer> priorities = indexNodes(order);
+        BitSet workList = new BitSet(order.size());
+        workList.set(0, order.size());
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Node node = order.get(i);
+            Fact in = result.getInFact(node);
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                for (Node succ : cfg.getSuccsOf(node)) {
+                    workList.set(priorities.get(succ));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
+        List<Node> order = reversePostOrder(cfg, cfg.getExit(), cfg::getPredsOf);
+        Map<Node, Integer> priorities = indexNodes(order);
+        BitSet workList = new BitSet(order.size());
+        workList.set(0, order.size());
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Node node = order.get(i);
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                for (Node pred : cfg.getPredsOf(node)) {
+                    workList.set(priorities.get(pred));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes reverse postorder of the nodes of given graph by depth-first
+     * search from {@code root} following {@code succs}. The nodes which
+     * are not reachable from {@code root} are appended to the resulting
+     * list in the iteration order of the graph, so that the resulting list
+     * always contains all nodes of the graph.
+     * <p>
+     * The search is iterative, so that it does not overflow the stack
+     * for very large methods.
+     */
+    static <Node> List<Node> reversePostOrder(
+            Graph<Node> graph, Node root, Function<Node, Set<Node>> succs) {
+        List<Node> postOrder = new ArrayList<>(graph.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(graph.getNumberOfNodes());
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+        iterators.push(succs.apply(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = iterators.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    iterators.push(succs.apply(succ).iterator());
+                }
+            } else {
+                iterators.pop();
+                postOrder.add(stack.pop());
+            }
+        }
+        Collections.reverse(postOrder);
+        for (Node node : graph) {
+            if (visited.add(node)) {
+                postOrder.add(node);
+            }
+        }
+        return postOrder;
+    }
+
+    /**
+     * @return a map from each node in given list to its position in the list.
+     */
+    static <Node> Map<Node, Integer> indexNodes(List<Node> nodes) {
+        Map<Node, Integer> indexes = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            indexes.put(nodes.get(i), i);
+        }
+        return indexes;
+    }
+}
@@ -23,8 +23,13 @@
 package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.ConfigException;
+
+import javax.annotation.Nullable;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -46,7 +51,38 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return makeSolver(analysis, null);
+    }
+
+    /**
+     * Static factory method to create a new solver of given kind
+     * for given analysis. Available kinds are:
+     * <ul>
+     *     <li>"priority": work-list solver which processes nodes in
+     *     reverse postorder, see {@link PriorityWorkListSolver}</li>
+     *     <li>"wto": solver which iterates over the weak topological
+     *     ordering of the CFG, see {@link WTOSolver}</li>
+     *     <li>"block": work-list solver which processes basic blocks and
+     *     keeps facts only at their boundaries, see {@link BlockSolver}</li>
+     *     <li>"baseline": the solver of the original assignment, i.e., work-list
+     *     solver which processes nodes in first-in-first-out order</li>
+     * </ul>
+     *
+     * @param kind kind of the solver; if it is null,
+     *             then "priority" solver is created.
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, @Nullable String kind) {
+        if (kind == null) {
+            return new PriorityWorkListSolver<>(analysis);
+        }
+        return switch (kind) {
+            case "priority" -> new PriorityWorkListSolver<>(analysis);
+            case "wto" -> new WTOSolver<>(analysis);
+            case "block" -> new BlockSolver<>(analysis);
+            case "baseline" -> new WorkListSolver<>(analysis);
+            default -> throw new ConfigException("Unknown solver: " + kind);
+        };
     }
 
     /**
@@ -55,8 +91,8 @@ public abstract class Solver<Node, Fact> {
      * @param cfg control-flow graph where the analysis is performed on
      * @return the analysis result
      */
-    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = initialize(cfg);
+    public NodeResult<Node, Fact> solve(CFG<Node> cfg) {
+        MutableNodeResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
         return result;
     }
@@ -66,8 +102,8 @@ public abstract class Solver<Node, Fact> {
      *
      * @return the initialized data-flow result
      */
-    private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+    private MutableNodeResult<Node, Fact> initialize(CFG<Node> cfg) {
+        MutableNodeResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,38 +112,49 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
-    protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    /**
+     * Creates a new data-flow result, which does not hold any facts yet,
+     * for given CFG. By default, the result is array-based if the nodes
+     * of the CFG are statements, see {@link IndexedDataflowResult}.
+     * Subclasses may override this method to provide results of
+     * other representations.
+     */
+    protected MutableNodeResult<Node, Fact> newResult(CFG<Node> cfg) {
+        return IndexedDataflowResult.make(cfg);
+    }
+
+    protected void initializeForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         // TODO - finish me
         Node entry = cfg.getEntry();
         result.setInFact(entry, analysis.newBoundaryFact(cfg));
-        result.setOutFact(entry, analysis.newInitialFact());
+        result.setOutFact(entry, analysis.newInitialFact(cfg));
         for (Node node : cfg) {
             if (cfg.isEntry(node)) {
                 continue;
             }
-            result.setInFact(node, analysis.newInitialFact());
-            result.setOutFact(node, analysis.newInitialFact());
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
         }
     }
 
-    protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void initializeBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         // TODO - finish me
         Node exit = cfg.getExit();
         result.setInFact(exit, analysis.newBoundaryFact(cfg));
-        result.setOutFact(exit, analysis.newInitialFact());
+        result.setOutFact(exit, analysis.newInitialFact(cfg));
         for (Node node : cfg) {
             if (cfg.isExit(node)) {
                 continue;
             }
-            result.setInFact(node, analysis.newInitialFact());
-            result.setOutFact(node, analysis.newInitialFact());
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
         }
     }
 
     /**
      * Solves the data-flow problem for given CFG.
      */
-    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    private void doSolve(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         if (analysis.isForward()) {
             doSolveForward(cfg, result);
         } else {
@@ -115,7 +162,7 @@ public abstract class Solver<Node, Fact> {
         }
     }
 
-    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    protected abstract void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result);
 
-    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    protected abstract void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result);
 }
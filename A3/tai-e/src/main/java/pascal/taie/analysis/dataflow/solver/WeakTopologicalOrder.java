@@ -0,0 +1,166 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.util.graph.Graph;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Weak topological ordering (WTO) of a graph, as described in
+ * F. Bourdoncle, "Efficient chaotic iteration strategies with widenings",
+ * FMPA 1993.
+ * <p>
+ * A WTO is a hierarchical decomposition of the graph: it is a list of
+ * elements in topological order, where each element is either a single
+ * {@link Vertex}, or a {@link Component} which consists of a head and
+ * a (nested) WTO of the other nodes of the component. The heads of the
+ * components cut all cycles of the graph, thus they are the natural
+ * widening points of the iteration.
+ * <p>
+ * The decomposition is computed via strongly connected components:
+ * the SCCs of the graph are sorted topologically, then each non-trivial
+ * SCC becomes a component whose head is its node that comes first in
+ * the given order (i.e., the loop header for reducible graphs), and
+ * the rest nodes of the SCC are decomposed recursively.
+ *
+ * @param <N> type of graph nodes
+ */
+final class WeakTopologicalOrder<N> {
+
+    private final List<Element<N>> elements;
+
+    /**
+     * @param graph    the graph to be decomposed
+     * @param priority the order used to select heads of components,
+     *                 typically reverse postorder of the graph
+     */
+    WeakTopologicalOrder(Graph<N> graph, Map<N, Integer> priority) {
+        this.elements = decompose(graph, priority);
+    }
+
+    /**
+     * @return the top-level elements of this WTO in topological order.
+     */
+    List<Element<N>> getElements() {
+        return elements;
+    }
+
+    private static <N> List<Element<N>> decompose(
+            Graph<N> graph, Map<N, Integer> priority) {
+        MergedSCCGraph<N> sccGraph = new MergedSCCGraph<>(graph);
+        List<Element<N>> elements = new ArrayList<>();
+        for (MergedNode<N> scc : new TopoSorter<>(sccGraph).get()) {
+            List<N> nodes = scc.getNodes();
+            if (nodes.size() == 1 && !graph.hasEdge(nodes.get(0), nodes.get(0))) {
+                elements.add(new Vertex<>(nodes.get(0)));
+            } else {
+                N head = nodes.stream()
+                        .min(Comparator.comparingInt(priority::get))
+                        .orElseThrow();
+                Set<N> rest = nodes.stream()
+                        .filter(n -> n != head)
+                        .collect(Collectors.toSet());
+                elements.add(new Component<>(head, rest.isEmpty() ? List.of()
+                        : decompose(new SubGraph<>(graph, rest), priority)));
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Element of a WTO.
+     */
+    interface Element<N> {
+
+        /**
+         * @return the node of a vertex, or the head of a component.
+         */
+        N getHead();
+    }
+
+    record Vertex<N>(N node) implements Element<N> {
+
+        @Override
+        public N getHead() {
+            return node;
+        }
+    }
+
+    record Component<N>(N head, List<Element<N>> children)
+            implements Element<N> {
+
+        @Override
+        public N getHead() {
+            return head;
+        }
+    }
+
+    /**
+     * View of the subgraph induced by a subset of nodes of a graph.
+     */
+    private record SubGraph<N>(Graph<N> graph, Set<N> nodes)
+            implements Graph<N> {
+
+        @Override
+        public boolean hasNode(N node) {
+            return nodes.contains(node);
+        }
+
+        @Override
+        public boolean hasEdge(N source, N target) {
+            return nodes.contains(source) && nodes.contains(target)
+                    && graph.hasEdge(source, target);
+        }
+
+        @Override
+        public Set<N> getPredsOf(N node) {
+            return graph.getPredsOf(node)
+                    .stream()
+                    .filter(nodes::contains)
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Set<N> getSuccsOf(N node) {
+            return graph.getSuccsOf(node)
+                    .stream()
+                    .filter(nodes::contains)
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Set<N> getNodes() {
+            return nodes;
+        }
+    }
+}
@@ -58,4 +58,28 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testUnreachableSwitchBranchSCCP() {
+        Tests.test("UnreachableSwitchBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sccp:true");
+    }
+
+    @Test
+    public void testLoopsWTO() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:wto",
+                "-a", "constprop=edge-refine:false;solver:wto");
+    }
+
+    @Test
+    public void testLoopsBlock() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:block",
+                "-a", "constprop=edge-refine:false;solver:block");
+    }
 }
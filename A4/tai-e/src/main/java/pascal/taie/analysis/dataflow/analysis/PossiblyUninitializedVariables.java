@@ -0,0 +1,137 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.inter.FlowFunction;
+import pascal.taie.analysis.dataflow.inter.IFDSProblem;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Set;
+
+/**
+ * IFDS problem of possibly-uninitialized variables. The fact at a node
+ * is a variable that may be read before it is assigned, which holds for
+ * the local variables at the entry of a method, and for the variables
+ * assigned from possibly-uninitialized variables.
+ */
+public class PossiblyUninitializedVariables implements IFDSProblem<Stmt, Var> {
+
+    private final Var zero = new Var(null, "<zero>", null, -1);
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    public PossiblyUninitializedVariables(ICFG<JMethod, Stmt> icfg) {
+        this.icfg = icfg;
+    }
+
+    @Override
+    public Var zeroValue() {
+        return zero;
+    }
+
+    @Override
+    public FlowFunction<Var> getNormalFlowFunction(NormalEdge<Stmt> edge) {
+        Stmt stmt = edge.getSource();
+        JMethod method = icfg.getContainingMethodOf(stmt);
+        if (stmt.equals(icfg.getEntryOf(method))) {
+            // the local variables are uninitialized at the entry
+            return source -> source == zero ? getLocalVars(method) : Set.of(source);
+        }
+        Var def = stmt.getDef().orElse(null) instanceof Var var ? var : null;
+        return source -> {
+            if (source == zero || def == null) {
+                return Set.of(source);
+            } else if (stmt.getUses().contains(source)) {
+                return source == def ? Set.of(source) : Set.of(source, def);
+            } else {
+                return source == def ? Set.of() : Set.of(source);
+            }
+        };
+    }
+
+    private Set<Var> getLocalVars(JMethod method) {
+        IR ir = method.getIR();
+        Set<Var> vars = Sets.newHybridSet();
+        vars.add(zero);
+        ir.getVars().forEach(vars::add);
+        ir.getParams().forEach(vars::remove);
+        if (ir.getThis() != null) {
+            vars.remove(ir.getThis());
+        }
+        return vars;
+    }
+
+    @Override
+    public FlowFunction<Var> getCallToReturnFlowFunction(CallToReturnEdge<Stmt> edge) {
+        // the result of the call is assigned via the return edges
+        Var result = ((Invoke) edge.getSource()).getResult();
+        return source -> source == result ? Set.of() : Set.of(source);
+    }
+
+    @Override
+    public FlowFunction<Var> getCallFlowFunction(CallEdge<Stmt> edge) {
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        IR calleeIR = edge.getCallee().getIR();
+        return source -> {
+            if (source == zero) {
+                return Set.of(zero);
+            }
+            Set<Var> params = Sets.newHybridSet();
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                if (invokeExp.getArg(i) == source) {
+                    params.add(calleeIR.getParam(i));
+                }
+            }
+            if (invokeExp instanceof InvokeInstanceExp instanceExp
+                    && instanceExp.getBase() == source
+                    && calleeIR.getThis() != null) {
+                params.add(calleeIR.getThis());
+            }
+            return params;
+        };
+    }
+
+    @Override
+    public FlowFunction<Var> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+        Var result = ((Invoke) edge.getCallSite()).getResult();
+        return source -> {
+            if (source == zero) {
+                return Set.of(zero);
+            }
+            return result != null && edge.getReturnVars().contains(source) ?
+                    Set.of(result) : Set.of();
+        };
+    }
+}
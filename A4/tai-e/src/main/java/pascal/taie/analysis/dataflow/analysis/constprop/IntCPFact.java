@@ -0,0 +1,367 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * {@link CPFact} which encodes lattice values as primitive {@code long}
+ * codes instead of {@link Value} objects, and stores them in an array
+ * indexed by {@link Var#getIndex()}, in parallel with an array of the
+ * variables. The code-based methods of this class, e.g.,
+ * {@link #getCode(Var)} and {@link #updateCode(Var, long)},
+ * do not allocate any objects.
+ * <p>
+ * A code packs the kind of the value in its high 32 bits,
+ * and the constant (if any) in its low 32 bits. In particular, the code
+ * of UNDEF is 0, so that absent variables are UNDEF as in {@link CPFact}.
+ * <p>
+ * As variables of different methods may have the same index,
+ * an IntCPFact should only contain variables of one method.
+ */
+public class IntCPFact extends CPFact {
+
+    public static final long UNDEF = 0L;
+
+    public static final long NAC = 2L << 32;
+
+    private static final long CONSTANT = 1L << 32;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final CodeMap codeMap;
+
+    public IntCPFact() {
+        this(new CodeMap(new Var[INITIAL_CAPACITY],
+                new long[INITIAL_CAPACITY], 0));
+    }
+
+    private IntCPFact(CodeMap codeMap) {
+        super(codeMap, false);
+        this.codeMap = codeMap;
+    }
+
+    /**
+     * @return code of given constant.
+     */
+    public static long makeConstant(int constant) {
+        return CONSTANT | (constant & 0xffffffffL);
+    }
+
+    public static boolean isConstant(long code) {
+        return (code & ~0xffffffffL) == CONSTANT;
+    }
+
+    /**
+     * @return the constant represented by given code.
+     * The result is meaningless if the code is not a constant.
+     */
+    public static int getConstant(long code) {
+        return (int) code;
+    }
+
+    /**
+     * @return code of given value.
+     */
+    public static long encode(Value value) {
+        if (value.isConstant()) {
+            return makeConstant(value.getConstant());
+        }
+        return value.isNAC() ? NAC : UNDEF;
+    }
+
+    /**
+     * @return value represented by given code.
+     */
+    public static Value decode(long code) {
+        if (isConstant(code)) {
+            return Value.makeConstant(getConstant(code));
+        }
+        return code == NAC ? Value.getNAC() : Value.getUndef();
+    }
+
+    /**
+     * @return the code of given variable in this fact,
+     * or {@link #UNDEF} if the variable is absent in this fact.
+     */
+    public long getCode(Var var) {
+        return codeMap.getCode(var);
+    }
+
+    /**
+     * Updates the code of given variable in this fact.
+     * Setting a variable to {@link #UNDEF} removes it from this fact.
+     *
+     * @return if the update changes this fact.
+     */
+    public boolean updateCode(Var var, long code) {
+        return codeMap.putCode(var, code) != code;
+    }
+
+    /**
+     * Performs the given action for each variable and its code
+     * in this fact, in ascending order of variable indexes.
+     */
+    public void forEachCode(ObjLongConsumer<Var> action) {
+        Var[] vars = codeMap.vars;
+        long[] codes = codeMap.codes;
+        for (int i = 0; i < vars.length; ++i) {
+            if (vars[i] != null) {
+                action.accept(vars[i], codes[i]);
+            }
+        }
+    }
+
+    @Override
+    public Value get(Var key) {
+        return decode(getCode(key));
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        return updateCode(key, encode(value));
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof IntCPFact other) {
+            return copyFrom(other, null, UNDEF);
+        }
+        return super.copyFrom(fact);
+    }
+
+    /**
+     * Copies the content from given fact to this fact, as if given
+     * fact had mapped {@code var} to {@code code}, without modifying
+     * given fact. This is the out fact update of a statement
+     * which assigns {@code code} to {@code var}.
+     *
+     * @param var the variable to be overridden, or null if none.
+     * @return true if this fact changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean copyFrom(IntCPFact fact, Var var, long code) {
+        Var[] vars = fact.codeMap.vars;
+        long[] codes = fact.codeMap.codes;
+        boolean changed = false;
+        for (int i = 0; i < vars.length; ++i) {
+            if (vars[i] != null && vars[i] != var) {
+                changed |= updateCode(vars[i], codes[i]);
+            }
+        }
+        if (var != null && code != UNDEF) {
+            changed |= updateCode(var, code);
+        }
+        return changed;
+    }
+
+    @Override
+    public IntCPFact copy() {
+        return new IntCPFact(new CodeMap(codeMap.vars.clone(),
+                codeMap.codes.clone(), codeMap.size));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntCPFact that)) {
+            // compare by contents with other representations of CPFact
+            return super.equals(o);
+        }
+        CodeMap m1 = codeMap, m2 = that.codeMap;
+        if (m1.size != m2.size) {
+            return false;
+        }
+        int length = Math.min(m1.vars.length, m2.vars.length);
+        // as the sizes are equal, the elements beyond the shorter
+        // arrays are absent if the ones within are equal
+        return Arrays.equals(m1.codes, 0, length, m2.codes, 0, length)
+                && Arrays.equals(m1.vars, 0, length, m2.vars, 0, length,
+                (v1, v2) -> v1 == v2 ? 0 : 1);
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with the hash code of the equivalent Map<Var, Value>
+        Var[] vars = codeMap.vars;
+        long[] codes = codeMap.codes;
+        int hash = 0;
+        for (int i = 0; i < vars.length; ++i) {
+            if (vars[i] != null) {
+                hash += vars[i].hashCode()
+                        ^ (isConstant(codes[i]) ? getConstant(codes[i]) : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * {@link java.util.Map} view of the codes, which holds the content
+     * of the IntCPFact. The i-th variable of {@link #vars} is null
+     * if and only if the i-th code of {@link #codes} is {@link #UNDEF}.
+     */
+    private static final class CodeMap extends AbstractMap<Var, Value> {
+
+        private Var[] vars;
+
+        private long[] codes;
+
+        private int size;
+
+        private CodeMap(Var[] vars, long[] codes, int size) {
+            this.vars = vars;
+            this.codes = codes;
+            this.size = size;
+        }
+
+        private long getCode(Var var) {
+            int index = var.getIndex();
+            return index < vars.length && vars[index] == var ?
+                    codes[index] : UNDEF;
+        }
+
+        /**
+         * @return the previous code of given variable.
+         */
+        private long putCode(Var var, long code) {
+            int index = var.getIndex();
+            if (index >= vars.length) {
+                if (code == UNDEF) {
+                    return UNDEF;
+                }
+                int capacity = Math.max(index + 1, vars.length * 2);
+                vars = Arrays.copyOf(vars, capacity);
+                codes = Arrays.copyOf(codes, capacity);
+            }
+            if (vars[index] != var) {
+                // var is absent
+                if (code != UNDEF) {
+                    if (vars[index] == null) {
+                        ++size;
+                    }
+                    vars[index] = var;
+                    codes[index] = code;
+                }
+                return UNDEF;
+            }
+            long old = codes[index];
+            if (code == UNDEF) {
+                vars[index] = null;
+                --size;
+            }
+            codes[index] = code;
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Var var && getCode(var) != UNDEF;
+        }
+
+        @Override
+        public Value get(Object key) {
+            if (key instanceof Var var) {
+                long code = getCode(var);
+                return code == UNDEF ? null : decode(code);
+            }
+            return null;
+        }
+
+        @Override
+        public Value put(Var key, Value value) {
+            long old = putCode(key, encode(value));
+            return old == UNDEF ? null : decode(old);
+        }
+
+        @Override
+        public Value remove(Object key) {
+            return key instanceof Var var ? put(var, Value.getUndef()) : null;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(vars, null);
+            Arrays.fill(codes, UNDEF);
+            size = 0;
+        }
+
+        @Override
+        public Set<Entry<Var, Value>> entrySet() {
+            return new AbstractSet<>() {
+
+                @Override
+                public Iterator<Entry<Var, Value>> iterator() {
+                    return new Iterator<>() {
+
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < vars.length && vars[from] == null) {
+                                ++from;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < vars.length;
+                        }
+
+                        @Override
+                        public Entry<Var, Value> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<Var, Value> entry = new SimpleImmutableEntry<>(
+                                    vars[next], decode(codes[next]));
+                            next = advance(next + 1);
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
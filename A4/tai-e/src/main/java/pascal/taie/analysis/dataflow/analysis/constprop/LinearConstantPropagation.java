@@ -0,0 +1,287 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.inter.EdgeFunction;
+import pascal.taie.analysis.dataflow.inter.FlowFunction;
+import pascal.taie.analysis.dataflow.inter.IDEProblem;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * IDE problem of linear constant propagation for int values. The facts
+ * are int variables, and the value of each fact is given by edge
+ * functions of the form {@code λl. a * l + b}, where {@code a} and
+ * {@code b} are constants. Assignments that are not linear in a single
+ * variable, e.g., {@code x = y * z}, make their results NAC.
+ */
+public class LinearConstantPropagation implements IDEProblem<Stmt, Var, Value> {
+
+    private final Var zero = new Var(null, "<zero>", null, -1);
+
+    private final ConstantPropagation cp = new ConstantPropagation(
+            new AnalysisConfig(ConstantPropagation.ID));
+
+    @Override
+    public Var zeroValue() {
+        return zero;
+    }
+
+    @Override
+    public Value topValue() {
+        return Value.getUndef();
+    }
+
+    @Override
+    public Value meet(Value v1, Value v2) {
+        return cp.meetValue(v1, v2);
+    }
+
+    @Override
+    public Value seedValue() {
+        return Value.getNAC();
+    }
+
+    @Override
+    public FlowFunction<Var> getNormalFlowFunction(NormalEdge<Stmt> edge) {
+        Assign assign = getAssign(edge.getSource());
+        if (assign == null) {
+            return FlowFunction.identity();
+        }
+        Var lhs = assign.lhs();
+        return source -> {
+            if (source == assign.rhs()) {
+                return source == lhs ? Set.of(source) : Set.of(source, lhs);
+            }
+            return source == lhs ? Set.of() : Set.of(source);
+        };
+    }
+
+    @Override
+    public EdgeFunction<Value> getNormalEdgeFunction(
+            NormalEdge<Stmt> edge, Var source, Var target) {
+        Assign assign = getAssign(edge.getSource());
+        if (assign != null && source == assign.rhs() && target == assign.lhs()) {
+            return assign.function();
+        }
+        return EdgeFunction.identity();
+    }
+
+    @Override
+    public FlowFunction<Var> getCallToReturnFlowFunction(CallToReturnEdge<Stmt> edge) {
+        // the result of the call is assigned via the return edges
+        Var result = ((Invoke) edge.getSource()).getResult();
+        return source -> source == result ? Set.of() : Set.of(source);
+    }
+
+    @Override
+    public FlowFunction<Var> getCallFlowFunction(CallEdge<Stmt> edge) {
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        IR calleeIR = edge.getCallee().getIR();
+        return source -> {
+            if (source == zero) {
+                return Set.of(zero);
+            }
+            Set<Var> params = Sets.newHybridSet();
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                Var param = calleeIR.getParam(i);
+                if (invokeExp.getArg(i) == source
+                        && ConstantPropagation.canHoldInt(param)) {
+                    params.add(param);
+                }
+            }
+            return params;
+        };
+    }
+
+    @Override
+    public FlowFunction<Var> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+        Var result = ((Invoke) edge.getCallSite()).getResult();
+        return source -> {
+            if (source == zero) {
+                return Set.of(zero);
+            }
+            return result != null && ConstantPropagation.canHoldInt(result)
+                    && edge.getReturnVars().contains(source) ?
+                    Set.of(result) : Set.of();
+        };
+    }
+
+    /**
+     * @return the assignment to an int variable performed by given
+     * statement, or null if the statement does not assign int variables.
+     */
+    private @Nullable Assign getAssign(Stmt stmt) {
+        if (stmt instanceof Invoke
+                || !(stmt instanceof DefinitionStmt<?, ?> defStmt)
+                || !(defStmt.getLValue() instanceof Var lhs)
+                || !ConstantPropagation.canHoldInt(lhs)) {
+            return null;
+        }
+        RValue rhs = defStmt.getRValue();
+        if (rhs instanceof IntLiteral literal) {
+            return new Assign(lhs, zero, new Linear(0, literal.getValue()));
+        }
+        if (rhs instanceof Var var && ConstantPropagation.canHoldInt(var)) {
+            return linear(lhs, var, 1, 0);
+        }
+        if (rhs instanceof ArithmeticExp exp) {
+            Var v1 = exp.getOperand1();
+            Var v2 = exp.getOperand2();
+            Integer c1 = getIntConstant(v1);
+            Integer c2 = getIntConstant(v2);
+            switch (exp.getOperator()) {
+                case ADD -> {
+                    if (c2 != null) {
+                        return linear(lhs, v1, 1, c2);
+                    } else if (c1 != null) {
+                        return linear(lhs, v2, 1, c1);
+                    }
+                }
+                case SUB -> {
+                    if (c2 != null) {
+                        return linear(lhs, v1, 1, -c2);
+                    } else if (c1 != null) {
+                        return linear(lhs, v2, -1, c1);
+                    }
+                }
+                case MUL -> {
+                    if (c2 != null) {
+                        return linear(lhs, v1, c2, 0);
+                    } else if (c1 != null) {
+                        return linear(lhs, v2, c1, 0);
+                    }
+                }
+            }
+        }
+        return new Assign(lhs, zero, AllNAC.INSTANCE);
+    }
+
+    /**
+     * @return assignment {@code lhs = a * rhs + b}.
+     */
+    private Assign linear(Var lhs, Var rhs, int a, int b) {
+        Integer c = getIntConstant(rhs);
+        return c != null ?
+                new Assign(lhs, zero, new Linear(0, a * c + b)) :
+                new Assign(lhs, rhs, new Linear(a, b));
+    }
+
+    private static @Nullable Integer getIntConstant(Var var) {
+        return var.isTempConst() && var.getTempConstValue() instanceof IntLiteral literal ?
+                literal.getValue() : null;
+    }
+
+    /**
+     * Assignment {@code lhs = function(rhs)}, where {@code rhs} is
+     * the zero fact if the value of {@code lhs} does not depend on
+     * any variable.
+     */
+    private record Assign(Var lhs, Var rhs, EdgeFunction<Value> function) {
+    }
+
+    /**
+     * Edge function {@code λl. a * l + b}.
+     */
+    private record Linear(int a, int b) implements EdgeFunction<Value> {
+
+        @Override
+        public Value computeTarget(Value source) {
+            if (source.isUndef()) {
+                return source;
+            } else if (source.isNAC()) {
+                return a == 0 ? Value.makeConstant(b) : source;
+            } else {
+                return Value.makeConstant(a * source.getConstant() + b);
+            }
+        }
+
+        @Override
+        public EdgeFunction<Value> composeWith(EdgeFunction<Value> second) {
+            if (second instanceof Linear linear) {
+                return new Linear(linear.a * a, linear.a * b + linear.b);
+            }
+            return second == EdgeFunction.<Value>identity() ? this : second;
+        }
+
+        @Override
+        public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+            if (other == EdgeFunction.<Value>identity()) {
+                other = new Linear(1, 0);
+            }
+            return equals(other) ? this : AllNAC.INSTANCE;
+        }
+
+        @Override
+        public String toString() {
+            return "λl." + a + "*l+" + b;
+        }
+    }
+
+    /**
+     * Edge function that maps all values except UNDEF to NAC.
+     */
+    private enum AllNAC implements EdgeFunction<Value> {
+
+        INSTANCE;
+
+        @Override
+        public Value computeTarget(Value source) {
+            return source.isUndef() ? source : Value.getNAC();
+        }
+
+        @Override
+        public EdgeFunction<Value> composeWith(EdgeFunction<Value> second) {
+            if (second instanceof Linear linear && linear.a() == 0) {
+                return second;
+            }
+            return this;
+        }
+
+        @Override
+        public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "λl.NAC";
+        }
+    }
+}
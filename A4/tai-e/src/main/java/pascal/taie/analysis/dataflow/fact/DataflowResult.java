@@ -31,7 +31,7 @@ import java.util.Map;
  * @param <Node> type of nodes
  * @param <Fact> type of data-flow facts
  */
-public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
+public class DataflowResult<Node, Fact> implements MutableNodeResult<Node, Fact> {
 
     private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
 
@@ -48,6 +48,7 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     /**
      * Associates a data-flow fact with a node as its flowing-in fact.
      */
+    @Override
     public void setInFact(Node node, Fact fact) {
         inFacts.put(node, fact);
     }
@@ -63,6 +64,7 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     /**
      * Associates a data-flow fact with a node as its flowing-out fact.
      */
+    @Override
     public void setOutFact(Node node, Fact fact) {
         outFacts.put(node, fact);
     }
@@ -0,0 +1,365 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Solver for {@link InterConstantPropagation} in the functional approach.
+ * <p>
+ * Each method is analyzed in contexts, i.e., the abstract values of its
+ * parameters, and the analysis of a method in a context yields its summary,
+ * i.e., the value it returns. Summaries are cached and reused at every call
+ * site whose arguments have the same abstract values, so that a method
+ * called with the same constants from many call sites is analyzed once.
+ * <p>
+ * The summary of a context starts as UNDEF, and when it changes, all
+ * contexts that used it are analyzed again until no summary changes.
+ * As the arguments of (recursive) calls may take unboundedly many
+ * constant values, each method has at most {@code maxContexts} contexts
+ * of constant arguments; after that, the method is analyzed in the
+ * context whose arguments are all NAC, which ensures termination.
+ * The facts of a method in the result are the meet of its facts
+ * in all contexts.
+ */
+class CPSummarySolver {
+
+    private final InterConstantPropagation analysis;
+
+    private final ConstantPropagation cp;
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final int maxContexts;
+
+    /**
+     * Nodes of each method in the order of processing.
+     */
+    private final Map<JMethod, List<Stmt>> orders = Maps.newMap();
+
+    /**
+     * Position of each node in the order of its method.
+     */
+    private final Map<Stmt, Integer> priorities = Maps.newMap();
+
+    private final Map<Context, Summary> summaries = Maps.newMap();
+
+    /**
+     * Number of contexts of each method.
+     */
+    private final Map<JMethod, Integer> contextCounts = Maps.newMap();
+
+    private final Queue<Context> workList = new SetQueue<>();
+
+    CPSummarySolver(InterConstantPropagation analysis, ConstantPropagation cp,
+                    ICFG<JMethod, Stmt> icfg, int maxContexts) {
+        this.analysis = analysis;
+        this.cp = cp;
+        this.icfg = icfg;
+        this.maxContexts = maxContexts;
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        computeOrders();
+        icfg.entryMethods().forEach(method -> {
+            // parameters of entry methods are not constants
+            List<Value> args = Collections.nCopies(
+                    method.getParamCount(), Value.getNAC());
+            getSummary(new Context(method, args));
+        });
+        while (!workList.isEmpty()) {
+            Context context = workList.poll();
+            Summary summary = summaries.get(context);
+            Value returnValue = analyzeContext(context, summary);
+            Value newValue = cp.meetValue(summary.returnValue, returnValue);
+            if (!newValue.equals(summary.returnValue)) {
+                summary.returnValue = newValue;
+                workList.addAll(summary.dependents);
+            }
+        }
+        return mergeResults();
+    }
+
+    /**
+     * Groups the nodes of ICFG by their methods, and orders the nodes of
+     * each method in reverse postorder of intra-procedural edges.
+     */
+    private void computeOrders() {
+        MultiMap<JMethod, Stmt> nodesOf = Maps.newMultiMap();
+        for (Stmt node : icfg) {
+            nodesOf.put(icfg.getContainingMethodOf(node), node);
+        }
+        for (JMethod method : nodesOf.keySet()) {
+            List<Stmt> postOrder = new ArrayList<>();
+            Set<Stmt> visited = Sets.newSet();
+            Deque<Stmt> stack = new ArrayDeque<>();
+            Deque<Iterator<Stmt>> iterators = new ArrayDeque<>();
+            Stmt entry = icfg.getEntryOf(method);
+            visited.add(entry);
+            stack.push(entry);
+            iterators.push(getIntraSuccsOf(entry).iterator());
+            while (!stack.isEmpty()) {
+                Iterator<Stmt> it = iterators.peek();
+                if (it.hasNext()) {
+                    Stmt succ = it.next();
+                    if (visited.add(succ)) {
+                        stack.push(succ);
+                        iterators.push(getIntraSuccsOf(succ).iterator());
+                    }
+                } else {
+                    iterators.pop();
+                    postOrder.add(stack.pop());
+                }
+            }
+            Collections.reverse(postOrder);
+            for (Stmt node : nodesOf.get(method)) {
+                if (visited.add(node)) {
+                    postOrder.add(node);
+                }
+            }
+            orders.put(method, postOrder);
+            for (int i = 0; i < postOrder.size(); ++i) {
+                priorities.put(postOrder.get(i), i);
+            }
+        }
+    }
+
+    private List<Stmt> getIntraSuccsOf(Stmt node) {
+        return icfg.getOutEdgesOf(node)
+                .stream()
+                .filter(CPSummarySolver::isIntra)
+                .map(ICFGEdge::getTarget)
+                .toList();
+    }
+
+    /**
+     * @return true if given edge does not cross method boundaries.
+     */
+    private static boolean isIntra(ICFGEdge<Stmt> edge) {
+        return !(edge instanceof CallEdge || edge instanceof ReturnEdge);
+    }
+
+    /**
+     * @return the summary of given context. If the context is new,
+     * it is added to the work-list.
+     */
+    private Summary getSummary(Context context) {
+        return summaries.computeIfAbsent(context, c -> {
+            contextCounts.merge(c.method(), 1, Integer::sum);
+            workList.add(c);
+            return new Summary();
+        });
+    }
+
+    /**
+     * @return the context of given method and arguments. If the method
+     * already has {@link #maxContexts} contexts and the context is new,
+     * then the arguments are widened to NAC.
+     */
+    private Context getContext(JMethod method, List<Value> args) {
+        Context context = new Context(method, args);
+        if (!summaries.containsKey(context)
+                && contextCounts.getOrDefault(method, 0) >= maxContexts) {
+            context = new Context(method,
+                    Collections.nCopies(args.size(), Value.getNAC()));
+        }
+        return context;
+    }
+
+    /**
+     * Analyzes the method of given context to fixed point.
+     *
+     * @return the value returned by the method in the context.
+     */
+    private Value analyzeContext(Context context, Summary summary) {
+        JMethod method = context.method();
+        IR ir = method.getIR();
+        List<Stmt> order = orders.get(method);
+        if (summary.result == null) {
+            summary.result = new DataflowResult<>();
+            for (Stmt node : order) {
+                summary.result.setInFact(node, cp.newInitialFact());
+                summary.result.setOutFact(node, cp.newInitialFact());
+            }
+        }
+        DataflowResult<Stmt, CPFact> result = summary.result;
+        Stmt entry = icfg.getEntryOf(method);
+        CPFact boundary = cp.newInitialFact();
+        for (int i = 0; i < ir.getParams().size(); ++i) {
+            Var param = ir.getParam(i);
+            if (ConstantPropagation.canHoldInt(param)) {
+                boundary.update(param, context.args().get(i));
+            }
+        }
+        BitSet nodes = new BitSet(order.size());
+        nodes.set(0, order.size());
+        for (int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(0)) {
+            nodes.clear(i);
+            Stmt node = order.get(i);
+            CPFact in = cp.newInitialFact();
+            if (node == entry) {
+                cp.meetInto(boundary, in);
+            }
+            for (ICFGEdge<Stmt> edge : icfg.getInEdgesOf(node)) {
+                CPFact predOut = result.getOutFact(edge.getSource());
+                if (edge instanceof CallToReturnEdge<Stmt> c2r) {
+                    cp.meetInto(transferCallToReturn(context, summary, c2r, predOut), in);
+                } else if (isIntra(edge)) {
+                    cp.meetInto(predOut, in);
+                }
+            }
+            result.setInFact(node, in);
+            boolean changed = icfg.isCallSite(node) ?
+                    analysis.transferCallNode(node, in, result.getOutFact(node)) :
+                    analysis.transferNonCallNode(node, in, result.getOutFact(node));
+            if (changed) {
+                for (Stmt succ : getIntraSuccsOf(node)) {
+                    nodes.set(priorities.get(succ));
+                }
+            }
+        }
+        CPFact exitOut = result.getOutFact(icfg.getExitOf(method));
+        Value returnValue = Value.getUndef();
+        for (Var returnVar : ir.getReturnVars()) {
+            returnValue = cp.meetValue(returnValue, exitOut.get(returnVar));
+        }
+        return returnValue;
+    }
+
+    /**
+     * Applies the summaries of the callees of a call site to the fact
+     * flowing from the call site to its return site.
+     */
+    private CPFact transferCallToReturn(Context context, Summary summary,
+                                        CallToReturnEdge<Stmt> edge, CPFact callSiteOut) {
+        Invoke callSite = (Invoke) edge.getSource();
+        for (JMethod callee : icfg.getCalleesOf(callSite)) {
+            IR calleeIR = callee.getIR();
+            List<Value> args = new ArrayList<>(calleeIR.getParams().size());
+            for (int i = 0; i < calleeIR.getParams().size(); ++i) {
+                // the values of parameters which can not hold int values
+                // are irrelevant, and they do not distinguish contexts
+                args.add(ConstantPropagation.canHoldInt(calleeIR.getParam(i)) ?
+                        callSiteOut.get(callSite.getInvokeExp().getArg(i)) :
+                        Value.getNAC());
+            }
+            Context calleeContext = getContext(callee, List.copyOf(args));
+            getSummary(calleeContext).dependents.add(context);
+            summary.calleeContexts.put(callSite, calleeContext);
+        }
+        CPFact fact = callSiteOut.copy();
+        Var lhs = callSite.getLValue();
+        if (lhs != null) {
+            fact.remove(lhs);
+            if (ConstantPropagation.canHoldInt(lhs)) {
+                // meets the summaries of all contexts the call site has
+                // ever used, which keeps the facts monotone while the
+                // arguments evolve during iteration
+                Value value = Value.getUndef();
+                for (Context calleeContext : summary.calleeContexts.get(callSite)) {
+                    value = cp.meetValue(value,
+                            summaries.get(calleeContext).returnValue);
+                }
+                fact.update(lhs, value);
+            }
+        }
+        return fact;
+    }
+
+    /**
+     * @return the result that meets the facts of each method
+     * in all its contexts.
+     */
+    private DataflowResult<Stmt, CPFact> mergeResults() {
+        DataflowResult<Stmt, CPFact> merged = new DataflowResult<>();
+        for (Stmt node : icfg) {
+            merged.setInFact(node, cp.newInitialFact());
+            merged.setOutFact(node, cp.newInitialFact());
+        }
+        summaries.forEach((context, summary) -> {
+            for (Stmt node : orders.get(context.method())) {
+                cp.meetInto(summary.result.getInFact(node), merged.getInFact(node));
+                cp.meetInto(summary.result.getOutFact(node), merged.getOutFact(node));
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * A method with the abstract values of its parameters.
+     */
+    private record Context(JMethod method, List<Value> args) {
+    }
+
+    private static class Summary {
+
+        /**
+         * Value returned by the method in the context.
+         */
+        private Value returnValue = Value.getUndef();
+
+        /**
+         * Facts of the method in the context.
+         */
+        private DataflowResult<Stmt, CPFact> result;
+
+        /**
+         * Contexts whose results depend on this summary.
+         */
+        private final Set<Context> dependents = Sets.newSet();
+
+        /**
+         * Callee contexts used by each call site in the context.
+         */
+        private final MultiMap<Invoke, Context> calleeContexts = Maps.newMultiMap();
+    }
+}
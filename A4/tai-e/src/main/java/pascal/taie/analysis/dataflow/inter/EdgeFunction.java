@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+/**
+ * Edge function of IDE problems, which transforms the value of the fact
+ * at the source of an edge of the exploded super-graph to the value of
+ * the fact at the target of the edge.
+ * <p>
+ * The solver compares edge functions by {@link Object#equals(Object)},
+ * so implementations should define equality of functions that have
+ * the same effect, and the edge functions of a problem must form
+ * a lattice of finite height under {@link #meetWith(EdgeFunction)}.
+ * Edge functions are assumed to map the top value to itself.
+ *
+ * @param <V> type of values
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the value of the target fact given the value of source fact.
+     */
+    V computeTarget(V source);
+
+    /**
+     * @return the function that applies this function and then {@code second}.
+     */
+    EdgeFunction<V> composeWith(EdgeFunction<V> second);
+
+    /**
+     * @return the meet of this function and {@code other}.
+     */
+    EdgeFunction<V> meetWith(EdgeFunction<V> other);
+
+    /**
+     * @return the identity edge function.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> EdgeFunction<V> identity() {
+        return (EdgeFunction<V>) Identity.INSTANCE;
+    }
+
+    /**
+     * The identity edge function. It does not know the value lattice,
+     * thus its meet with other functions is delegated to them.
+     */
+    enum Identity implements EdgeFunction<Object> {
+
+        INSTANCE;
+
+        @Override
+        public Object computeTarget(Object source) {
+            return source;
+        }
+
+        @Override
+        public EdgeFunction<Object> composeWith(EdgeFunction<Object> second) {
+            return second;
+        }
+
+        @Override
+        public EdgeFunction<Object> meetWith(EdgeFunction<Object> other) {
+            return other == this ? this : other.meetWith(this);
+        }
+
+        @Override
+        public String toString() {
+            return "id";
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+/**
+ * Interprocedural distributive environment (IDE) problem, which extends
+ * {@link IFDSProblem} by associating values with data-flow facts.
+ * The values are transformed by edge functions along the edges of
+ * the exploded super-graph. By default, all edge functions are identity.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of values
+ */
+public interface IDEProblem<Node, D, V> extends IFDSProblem<Node, D> {
+
+    /**
+     * @return the top value, i.e., the identity of {@link #meet}.
+     */
+    V topValue();
+
+    V meet(V v1, V v2);
+
+    /**
+     * @return the value of the zero fact at the entries of entry methods.
+     */
+    V seedValue();
+
+    default EdgeFunction<V> getNormalEdgeFunction(
+            NormalEdge<Node> edge, D source, D target) {
+        return EdgeFunction.identity();
+    }
+
+    default EdgeFunction<V> getCallToReturnEdgeFunction(
+            CallToReturnEdge<Node> edge, D source, D target) {
+        return EdgeFunction.identity();
+    }
+
+    default EdgeFunction<V> getCallEdgeFunction(
+            CallEdge<Node> edge, D source, D target) {
+        return EdgeFunction.identity();
+    }
+
+    default EdgeFunction<V> getReturnEdgeFunction(
+            ReturnEdge<Node> edge, D source, D target) {
+        return EdgeFunction.identity();
+    }
+}
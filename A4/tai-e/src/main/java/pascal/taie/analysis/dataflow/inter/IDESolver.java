@@ -0,0 +1,346 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+
+/**
+ * Tabulation solver for {@link IDEProblem}s, following
+ * <a href="https://doi.org/10.1016/0304-3975(96)00072-2">
+ * Sagiv, Reps and Horwitz, Precise interprocedural dataflow analysis
+ * with applications to constant propagation</a>.
+ * <p>
+ * The exploded super-graph is never built as a whole: its edges are
+ * computed by the flow functions when the facts at their sources are
+ * reached. Phase I computes jump functions, i.e., the composed edge
+ * functions of the path edges from the entries of methods, and memoizes
+ * the effects of callees as summary functions, so each callee is
+ * analyzed once per fact at its entry no matter how many call sites
+ * it has. Phase II computes the values at each node from the jump
+ * functions and the values at the entries of methods.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of values
+ */
+public class IDESolver<Method, Node, D, V> {
+
+    private final IDEProblem<Node, D, V> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    /**
+     * Jump functions of path edges.
+     */
+    private final Map<PathEdge<Node, D>, EdgeFunction<V>> jumpFns = Maps.newMap();
+
+    /**
+     * Sources of the path edges to each (call site, fact).
+     */
+    private final MultiMap<NodeFact<Node, D>, D> callSiteSources = Maps.newMultiMap();
+
+    /**
+     * Path edges to call sites from each (method entry, fact).
+     */
+    private final MultiMap<NodeFact<Node, D>, PathEdge<Node, D>> callSitePathEdges
+            = Maps.newMultiMap();
+
+    /**
+     * Call edges and facts at call sites flowing into each
+     * (callee entry, fact).
+     */
+    private final MultiMap<NodeFact<Node, D>, Incoming<Node, D>> incoming
+            = Maps.newMultiMap();
+
+    /**
+     * (method entry, fact) -> (method exit, fact) -> jump function.
+     */
+    private final TwoKeyMap<NodeFact<Node, D>, NodeFact<Node, D>, EdgeFunction<V>>
+            endSummaries = Maps.newTwoKeyMap();
+
+    /**
+     * (call site, fact) -> (return site, fact) -> summary function.
+     */
+    private final TwoKeyMap<NodeFact<Node, D>, NodeFact<Node, D>, EdgeFunction<V>>
+            summaries = Maps.newTwoKeyMap();
+
+    private final Queue<PathEdge<Node, D>> workList = new ArrayDeque<>();
+
+    public IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+    }
+
+    /**
+     * Solves the problem.
+     *
+     * @return the values of the facts that hold at each node.
+     */
+    public TwoKeyMap<Node, D, V> solve() {
+        computeJumpFunctions();
+        return computeValues();
+    }
+
+    /**
+     * Phase I: computes jump functions and summary functions.
+     */
+    void computeJumpFunctions() {
+        D zero = problem.zeroValue();
+        icfg.entryMethods().forEach(method -> propagate(
+                zero, icfg.getEntryOf(method), zero, EdgeFunction.identity()));
+        while (!workList.isEmpty()) {
+            PathEdge<Node, D> pathEdge = workList.poll();
+            EdgeFunction<V> f = jumpFns.get(pathEdge);
+            Node node = pathEdge.node();
+            if (icfg.isCallSite(node)) {
+                processCall(pathEdge, f);
+            } else if (isExit(node)) {
+                processExit(pathEdge, f);
+            } else {
+                processNormal(pathEdge, f);
+            }
+        }
+    }
+
+    private boolean isExit(Node node) {
+        return Objects.equals(node,
+                icfg.getExitOf(icfg.getContainingMethodOf(node)));
+    }
+
+    private void processCall(PathEdge<Node, D> pathEdge, EdgeFunction<V> f) {
+        Node callSite = pathEdge.node();
+        D d1 = pathEdge.source();
+        D d2 = pathEdge.target();
+        NodeFact<Node, D> callFact = new NodeFact<>(callSite, d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge<Node> callEdge) {
+                Node entry = callEdge.getTarget();
+                for (D d3 : problem.getCallFlowFunction(callEdge).apply(d2)) {
+                    NodeFact<Node, D> entryFact = new NodeFact<>(entry, d3);
+                    incoming.put(entryFact, new Incoming<>(callEdge, d2));
+                    propagate(d3, entry, d3, EdgeFunction.identity());
+                    // applies the effects of the callee computed so far
+                    Map<NodeFact<Node, D>, EdgeFunction<V>> ends = endSummaries.get(entryFact);
+                    if (ends != null) {
+                        EdgeFunction<V> callFn = problem.getCallEdgeFunction(callEdge, d2, d3);
+                        for (var end : List.copyOf(ends.entrySet())) {
+                            applyReturn(callEdge, d2, callFn, end.getKey(), end.getValue());
+                        }
+                    }
+                }
+            } else if (edge instanceof CallToReturnEdge<Node> c2rEdge) {
+                for (D d3 : problem.getCallToReturnFlowFunction(c2rEdge).apply(d2)) {
+                    propagate(d1, c2rEdge.getTarget(), d3, f.composeWith(
+                            problem.getCallToReturnEdgeFunction(c2rEdge, d2, d3)));
+                }
+            }
+        }
+        Map<NodeFact<Node, D>, EdgeFunction<V>> sums = summaries.get(callFact);
+        if (sums != null) {
+            for (var sum : List.copyOf(sums.entrySet())) {
+                NodeFact<Node, D> retFact = sum.getKey();
+                propagate(d1, retFact.node(), retFact.fact(), f.composeWith(sum.getValue()));
+            }
+        }
+    }
+
+    private void processExit(PathEdge<Node, D> pathEdge, EdgeFunction<V> f) {
+        Node exit = pathEdge.node();
+        D d1 = pathEdge.source();
+        NodeFact<Node, D> entryFact = new NodeFact<>(
+                icfg.getEntryOf(icfg.getContainingMethodOf(exit)), d1);
+        NodeFact<Node, D> exitFact = new NodeFact<>(exit, pathEdge.target());
+        // the jump function only descends, so the latest one subsumes
+        // the ones recorded before
+        endSummaries.put(entryFact, exitFact, f);
+        for (Incoming<Node, D> in : List.copyOf(incoming.get(entryFact))) {
+            EdgeFunction<V> callFn = problem.getCallEdgeFunction(
+                    in.callEdge(), in.fact(), d1);
+            applyReturn(in.callEdge(), in.fact(), callFn, exitFact, f);
+        }
+    }
+
+    /**
+     * Composes and records the summary functions from a call site to its
+     * return sites through a path in the callee, and propagates them to
+     * the callers.
+     *
+     * @param callEdge the call edge
+     * @param d2       the fact at the call site
+     * @param callFn   the edge function of the call edge
+     * @param exitFact the (exit, fact) reached in the callee
+     * @param endFn    the jump function from the callee entry to exitFact
+     */
+    private void applyReturn(CallEdge<Node> callEdge, D d2, EdgeFunction<V> callFn,
+                             NodeFact<Node, D> exitFact, EdgeFunction<V> endFn) {
+        Node callSite = callEdge.getSource();
+        NodeFact<Node, D> callFact = new NodeFact<>(callSite, d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(exitFact.node())) {
+            if (edge instanceof ReturnEdge<Node> returnEdge
+                    && Objects.equals(returnEdge.getCallSite(), callSite)) {
+                D d4 = exitFact.fact();
+                for (D d5 : problem.getReturnFlowFunction(returnEdge).apply(d4)) {
+                    EdgeFunction<V> sumFn = callFn.composeWith(endFn).composeWith(
+                            problem.getReturnEdgeFunction(returnEdge, d4, d5));
+                    NodeFact<Node, D> retFact = new NodeFact<>(returnEdge.getTarget(), d5);
+                    EdgeFunction<V> oldFn = summaries.get(callFact, retFact);
+                    EdgeFunction<V> newFn = oldFn == null ? sumFn : oldFn.meetWith(sumFn);
+                    if (!newFn.equals(oldFn)) {
+                        summaries.put(callFact, retFact, newFn);
+                        for (D d1 : List.copyOf(callSiteSources.get(callFact))) {
+                            EdgeFunction<V> f = jumpFns.get(new PathEdge<>(d1, callSite, d2));
+                            propagate(d1, retFact.node(), d5, f.composeWith(newFn));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void processNormal(PathEdge<Node, D> pathEdge, EdgeFunction<V> f) {
+        D d1 = pathEdge.source();
+        D d2 = pathEdge.target();
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(pathEdge.node())) {
+            if (edge instanceof NormalEdge<Node> normalEdge) {
+                for (D d3 : problem.getNormalFlowFunction(normalEdge).apply(d2)) {
+                    propagate(d1, normalEdge.getTarget(), d3, f.composeWith(
+                            problem.getNormalEdgeFunction(normalEdge, d2, d3)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Meets {@code f} into the jump function of path edge
+     * (d1 at method entry) -> (d2 at node), and adds the path edge
+     * to the work-list if its jump function changes.
+     */
+    private void propagate(D d1, Node node, D d2, EdgeFunction<V> f) {
+        PathEdge<Node, D> pathEdge = new PathEdge<>(d1, node, d2);
+        EdgeFunction<V> oldFn = jumpFns.get(pathEdge);
+        EdgeFunction<V> newFn = oldFn == null ? f : oldFn.meetWith(f);
+        if (!newFn.equals(oldFn)) {
+            jumpFns.put(pathEdge, newFn);
+            if (oldFn == null && icfg.isCallSite(node)) {
+                callSiteSources.put(new NodeFact<>(node, d2), d1);
+                Node entry = icfg.getEntryOf(icfg.getContainingMethodOf(node));
+                callSitePathEdges.put(new NodeFact<>(entry, d1), pathEdge);
+            }
+            workList.add(pathEdge);
+        }
+    }
+
+    /**
+     * Phase II: computes the values of facts at the entries of methods,
+     * and then the values at all nodes via jump functions.
+     */
+    private TwoKeyMap<Node, D, V> computeValues() {
+        Map<NodeFact<Node, D>, V> entryValues = Maps.newMap();
+        Queue<NodeFact<Node, D>> entryWorkList = new ArrayDeque<>();
+        D zero = problem.zeroValue();
+        icfg.entryMethods().forEach(method -> {
+            NodeFact<Node, D> seed = new NodeFact<>(icfg.getEntryOf(method), zero);
+            entryValues.put(seed, problem.seedValue());
+            entryWorkList.add(seed);
+        });
+        while (!entryWorkList.isEmpty()) {
+            NodeFact<Node, D> entryFact = entryWorkList.poll();
+            V value = entryValues.get(entryFact);
+            for (PathEdge<Node, D> pathEdge : callSitePathEdges.get(entryFact)) {
+                V callSiteValue = jumpFns.get(pathEdge).computeTarget(value);
+                D d2 = pathEdge.target();
+                for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(pathEdge.node())) {
+                    if (edge instanceof CallEdge<Node> callEdge) {
+                        for (D d3 : problem.getCallFlowFunction(callEdge).apply(d2)) {
+                            V calleeValue = problem.getCallEdgeFunction(callEdge, d2, d3)
+                                    .computeTarget(callSiteValue);
+                            NodeFact<Node, D> calleeFact =
+                                    new NodeFact<>(callEdge.getTarget(), d3);
+                            V oldValue = entryValues.getOrDefault(
+                                    calleeFact, problem.topValue());
+                            V newValue = problem.meet(oldValue, calleeValue);
+                            if (!newValue.equals(oldValue)
+                                    || !entryValues.containsKey(calleeFact)) {
+                                entryValues.put(calleeFact, newValue);
+                                entryWorkList.add(calleeFact);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        TwoKeyMap<Node, D, V> values = Maps.newTwoKeyMap();
+        jumpFns.forEach((pathEdge, f) -> {
+            Node node = pathEdge.node();
+            Node entry = icfg.getEntryOf(icfg.getContainingMethodOf(node));
+            V entryValue = entryValues.get(new NodeFact<>(entry, pathEdge.source()));
+            if (entryValue != null) {
+                V oldValue = values.getOrDefault(node, pathEdge.target(),
+                        problem.topValue());
+                values.put(node, pathEdge.target(),
+                        problem.meet(oldValue, f.computeTarget(entryValue)));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * @return the facts that hold at each node, which are available
+     * after {@link #computeJumpFunctions()}.
+     */
+    MultiMap<Node, D> getReachableFacts() {
+        MultiMap<Node, D> facts = Maps.newMultiMap();
+        jumpFns.keySet().forEach(pathEdge ->
+                facts.put(pathEdge.node(), pathEdge.target()));
+        return facts;
+    }
+
+    /**
+     * Path edge from fact {@code source} at the entry of the method
+     * containing {@code node} to fact {@code target} at {@code node}.
+     */
+    private record PathEdge<Node, D>(D source, Node node, D target) {
+    }
+
+    private record NodeFact<Node, D>(Node node, D fact) {
+    }
+
+    private record Incoming<Node, D>(CallEdge<Node> callEdge, D fact) {
+    }
+}
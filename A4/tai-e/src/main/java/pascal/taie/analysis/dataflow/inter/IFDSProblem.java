@@ -0,0 +1,64 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+/**
+ * Interprocedural, finite, distributive, subset (IFDS) problem.
+ * <p>
+ * The effects of ICFG nodes are modeled by the flow functions of
+ * the edges going out of them, so the facts of a node are the facts
+ * that hold before the node. The special zero fact holds at the entries
+ * of entry methods, and the flow functions generate facts from it.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public interface IFDSProblem<Node, D> {
+
+    /**
+     * @return the zero fact, which must not be null.
+     */
+    D zeroValue();
+
+    FlowFunction<D> getNormalFlowFunction(NormalEdge<Node> edge);
+
+    FlowFunction<D> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge);
+
+    /**
+     * @return the flow function that maps facts at the call site
+     * to the facts at the entry of the callee.
+     */
+    FlowFunction<D> getCallFlowFunction(CallEdge<Node> edge);
+
+    /**
+     * @return the flow function that maps facts at the exit of the callee
+     * to the facts at the return site.
+     */
+    FlowFunction<D> getReturnFlowFunction(ReturnEdge<Node> edge);
+}
@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.MultiMap;
+
+/**
+ * Tabulation solver for {@link IFDSProblem}s, following
+ * <a href="https://doi.org/10.1145/199448.199462">
+ * Reps, Horwitz and Sagiv, Precise interprocedural dataflow analysis
+ * via graph reachability</a>.
+ * <p>
+ * IFDS problems are IDE problems whose edge functions are all identity,
+ * thus this solver runs the phase I of {@link IDESolver}, and the facts
+ * that hold at each node are the targets of the path edges to the node.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, D> {
+
+    private final IDESolver<Method, Node, D, Boolean> solver;
+
+    public IFDSSolver(IFDSProblem<Node, D> problem, ICFG<Method, Node> icfg) {
+        this.solver = new IDESolver<>(new IDEAdapter<>(problem), icfg);
+    }
+
+    /**
+     * Solves the problem.
+     *
+     * @return the facts that hold at each node.
+     */
+    public MultiMap<Node, D> solve() {
+        solver.computeJumpFunctions();
+        return solver.getReachableFacts();
+    }
+
+    /**
+     * Views an IFDS problem as an IDE problem on the lattice of reachability.
+     */
+    private record IDEAdapter<Node, D>(IFDSProblem<Node, D> problem)
+            implements IDEProblem<Node, D, Boolean> {
+
+        @Override
+        public Boolean topValue() {
+            return false;
+        }
+
+        @Override
+        public Boolean meet(Boolean v1, Boolean v2) {
+            return v1 || v2;
+        }
+
+        @Override
+        public Boolean seedValue() {
+            return true;
+        }
+
+        @Override
+        public D zeroValue() {
+            return problem.zeroValue();
+        }
+
+        @Override
+        public FlowFunction<D> getNormalFlowFunction(NormalEdge<Node> edge) {
+            return problem.getNormalFlowFunction(edge);
+        }
+
+        @Override
+        public FlowFunction<D> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge) {
+            return problem.getCallToReturnFlowFunction(edge);
+        }
+
+        @Override
+        public FlowFunction<D> getCallFlowFunction(CallEdge<Node> edge) {
+            return problem.getCallFlowFunction(edge);
+        }
+
+        @Override
+        public FlowFunction<D> getReturnFlowFunction(ReturnEdge<Node> edge) {
+            return problem.getReturnFlowFunction(edge);
+        }
+    }
+}
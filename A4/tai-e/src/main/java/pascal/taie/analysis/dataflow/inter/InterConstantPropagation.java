@@ -22,13 +22,16 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
@@ -57,11 +60,42 @@ public class InterConstantPropagation extends
 
     public static final String ID = "inter-constprop";
 
+    private static final int DEFAULT_MAX_CONTEXTS = 16;
+
     private final ConstantPropagation cp;
 
+    /**
+     * If true, the analysis is solved by {@link CPSummarySolver}
+     * with memoized method summaries.
+     */
+    private final boolean summary;
+
+    /**
+     * Maximum number of contexts of constant arguments of each method
+     * for {@link CPSummarySolver}.
+     */
+    private final int maxContexts;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "fact", getOptions().getString("fact")));
+        summary = getOptions().getBooleanOrDefault("summary", false);
+        maxContexts = getOptions().get("max-contexts") == null ?
+                DEFAULT_MAX_CONTEXTS : getOptions().getInt("max-contexts");
+    }
+
+    @Override
+    public Object analyze() {
+        if (!summary) {
+            return super.analyze();
+        }
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        initialize();
+        DataflowResult<Stmt, CPFact> result =
+                new CPSummarySolver(this, cp, icfg, maxContexts).solve();
+        finish();
+        return result;
     }
 
     @Override
@@ -120,7 +154,7 @@ public class InterConstantPropagation extends
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
         // TODO - finish me
-        CPFact cpFact = new CPFact();
+        CPFact cpFact = cp.newInitialFact();
 
         Stmt source = edge.getSource();
         Optional<LValue> lValue = source.getDef();
@@ -145,7 +179,7 @@ public class InterConstantPropagation extends
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
         // TODO - finish me
-        CPFact cpFact = new CPFact();
+        CPFact cpFact = cp.newInitialFact();
 
         Stmt target = edge.getCallSite();
         Optional<LValue> def = target.getDef();
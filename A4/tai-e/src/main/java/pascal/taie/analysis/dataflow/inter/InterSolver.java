@@ -22,23 +22,47 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import pascal.taie.World;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
-import pascal.taie.ir.IR;
-import pascal.taie.util.collection.SetQueue;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.TopoSorter;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * <p>
+ * The solver starts from the entry methods of the ICFG, and discovers
+ * the other methods when call edges to them are met, so that only the
+ * parts of the ICFG that the analysis actually visits are queried.
+ * <p>
+ * The methods are ordered by the strongly connected components of the
+ * call graph in topological order (callers first), and the nodes of each
+ * method are ordered by reverse postorder. The work-list always picks
+ * the first pending node of the first method with pending nodes, so that
+ * each component is iterated to a fixed point before the facts flow to
+ * the components after it. Only forward analyses are supported.
  */
 class InterSolver<Method, Node, Fact> {
 
@@ -48,10 +72,34 @@ class InterSolver<Method, Node, Fact> {
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    /**
+     * Positions of the methods in the processing order,
+     * see {@link #computeMethodOrder()}.
+     */
+    private Map<Method, Integer> methodOrder;
+
+    /**
+     * Nodes of the discovered methods, indexed by the positions
+     * of the methods. The undiscovered methods have null entries.
+     */
+    private MethodNodes<Node>[] methodNodes;
+
+    /**
+     * Positions of the nodes of the discovered methods.
+     */
+    private Map<Node, Position> positions;
+
+    /**
+     * Positions of the methods that have pending nodes.
+     */
+    private BitSet pendingMethods;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
+        if (!analysis.isForward()) {
+            throw new AnalysisException(
+                    "InterSolver does not support backward analysis");
+        }
         this.analysis = analysis;
         this.icfg = icfg;
     }
@@ -63,46 +111,198 @@ class InterSolver<Method, Node, Fact> {
         return result;
     }
 
+    @SuppressWarnings("unchecked")
     private void initialize() {
-        // TODO - finish me
-        for (Node node : icfg) {
-            boolean isEntry = icfg.entryMethods().anyMatch(m -> {
-                Node entryNode = icfg.getEntryOf(m);
-                return entryNode == node;
-            });
-            if (isEntry) {
-                result.setInFact(node, analysis.newBoundaryFact(node));
-                result.setOutFact(node, analysis.newInitialFact());
-            } else {
-                result.setInFact(node, analysis.newInitialFact());
-                result.setOutFact(node, analysis.newInitialFact());
-            }
-        }
+        methodOrder = computeMethodOrder();
+        methodNodes = new MethodNodes[methodOrder.size()];
+        positions = Maps.newMap();
+        pendingMethods = new BitSet(methodOrder.size());
+        icfg.entryMethods().forEach(method -> {
+            discover(method);
+            Node entry = icfg.getEntryOf(method);
+            result.setInFact(entry, analysis.newBoundaryFact(entry));
+        });
     }
 
     private void doSolve() {
-        // TODO - finish me
-        workList = new LinkedList<>(icfg.getNodes());
-        while (!workList.isEmpty()) {
-            Node node = workList.poll();
-
-            Fact infact = analysis.newInitialFact();
-//            Fact infact = result.getInFact(node);
-            Set<ICFGEdge<Node>> inEdges = icfg.getInEdgesOf(node);
-
-            for (ICFGEdge<Node> edge : inEdges) {
-                Node source = edge.getSource();
-                Fact sourceOutFact = result.getOutFact(source);
-                Fact transferredOutfact = analysis.transferEdge(edge, sourceOutFact);
-                analysis.meetInto(transferredOutfact, infact);
+        while (!pendingMethods.isEmpty()) {
+            Node node = poll();
+            Fact in = result.getInFact(node);
+            for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
+                Fact sourceOutFact = result.getOutFact(edge.getSource());
+                // the sources in undiscovered methods have no facts yet
+                if (sourceOutFact != null) {
+                    analysis.meetInto(analysis.transferEdge(edge, sourceOutFact), in);
+                }
+            }
+            boolean changed = analysis.transferNode(node, in, result.getOutFact(node));
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                Node target = edge.getTarget();
+                Position pos = positions.get(target);
+                if (pos != null) {
+                    if (changed) {
+                        add(pos);
+                    }
+                } else if (edge instanceof CallEdge) {
+                    discover(icfg.getContainingMethodOf(target));
+                }
+                // the other targets are in undiscovered callers, which
+                // will pull the facts via in edges once they are discovered
             }
+        }
+    }
+
+    /**
+     * Adds the node at given position to the work-list.
+     */
+    private void add(Position pos) {
+        methodNodes[pos.method()].pending.set(pos.index());
+        pendingMethods.set(pos.method());
+    }
+
+    /**
+     * Removes and returns the first pending node of the first
+     * method that has pending nodes.
+     */
+    private Node poll() {
+        int method = pendingMethods.nextSetBit(0);
+        MethodNodes<Node> nodes = methodNodes[method];
+        int index = nodes.pending.nextSetBit(0);
+        nodes.pending.clear(index);
+        if (nodes.pending.isEmpty()) {
+            pendingMethods.clear(method);
+        }
+        return nodes.nodes.get(index);
+    }
+
+    /**
+     * Discovers a method, i.e., initializes the facts of its nodes,
+     * and adds them to the work-list.
+     */
+    private void discover(Method method) {
+        Integer order = methodOrder.get(method);
+        if (order == null) {
+            // the method is missing in the call graph,
+            // thus it is put after all the other methods
+            order = methodOrder.size();
+            methodOrder.put(method, order);
+        }
+        if (order >= methodNodes.length) {
+            methodNodes = Arrays.copyOf(methodNodes,
+                    Math.max(order + 1, methodNodes.length * 2));
+        }
+        if (methodNodes[order] != null) {
+            return;
+        }
+        List<Node> nodes = getReversePostOrder(method);
+        methodNodes[order] = new MethodNodes<>(nodes);
+        for (int i = 0; i < nodes.size(); ++i) {
+            Node node = nodes.get(i);
+            Position pos = new Position(order, i);
+            positions.put(node, pos);
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+            add(pos);
+        }
+    }
 
-            Fact outfact = result.getOutFact(node);
-            if (analysis.transferNode(node, infact, outfact)) {
-                Set<Node> succs = icfg.getSuccsOf(node);
-                succs.forEach(workList::offer);
+    /**
+     * Computes the positions of the methods of the call graph in the
+     * processing order, i.e., the methods are condensed into strongly
+     * connected components, and the components are sorted topologically,
+     * callers first.
+     */
+    private Map<Method, Integer> computeMethodOrder() {
+        CallGraph<?, Method> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        List<MergedNode<Method>> components =
+                new TopoSorter<>(new MergedSCCGraph<>(callGraph)).get();
+        Map<Method, Integer> order = Maps.newMap(callGraph.getNumberOfMethods());
+        for (MergedNode<Method> component : components) {
+            for (Method method : component.getNodes()) {
+                order.put(method, order.size());
             }
+        }
+        return order;
+    }
+
+    /**
+     * Position of a node, i.e., the position of its containing method
+     * and its index in reverse postorder of the method.
+     */
+    private record Position(int method, int index) {
+    }
+
+    /**
+     * Nodes of a discovered method in reverse postorder,
+     * and the indexes of its pending nodes.
+     */
+    private static class MethodNodes<Node> {
+
+        private final List<Node> nodes;
 
+        private final BitSet pending;
+
+        private MethodNodes(List<Node> nodes) {
+            this.nodes = nodes;
+            this.pending = new BitSet(nodes.size());
         }
     }
+
+    /**
+     * @return the nodes of given method in reverse postorder of the
+     * intra-procedural edges from its entry, followed by the nodes
+     * that are unreachable from the entry but reach the exit.
+     */
+    private List<Node> getReversePostOrder(Method method) {
+        Set<Node> visited = Sets.newSet();
+        List<Node> order = new ArrayList<>();
+        addPostOrder(icfg.getEntryOf(method), true, visited, order);
+        Collections.reverse(order);
+        List<Node> rest = new ArrayList<>();
+        addPostOrder(icfg.getExitOf(method), false, visited, rest);
+        order.addAll(rest);
+        return order;
+    }
+
+    /**
+     * Appends the unvisited nodes reachable from {@code root} via
+     * intra-procedural edges to {@code order} in postorder.
+     *
+     * @param forward whether to follow the edges forward or backward
+     */
+    private void addPostOrder(Node root, boolean forward,
+                              Set<Node> visited, List<Node> order) {
+        if (!visited.add(root)) {
+            return;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+        stack.push(root);
+        iterators.push(getIntraSuccsOf(root, forward));
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = iterators.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    iterators.push(getIntraSuccsOf(succ, forward));
+                }
+            } else {
+                iterators.pop();
+                order.add(stack.pop());
+            }
+        }
+    }
+
+    /**
+     * @return successors of given node (predecessors if {@code forward}
+     * is false) via edges that do not cross method boundaries.
+     */
+    private Iterator<Node> getIntraSuccsOf(Node node, boolean forward) {
+        return (forward ? icfg.getOutEdgesOf(node) : icfg.getInEdgesOf(node))
+                .stream()
+                .filter(e -> !(e instanceof CallEdge || e instanceof ReturnEdge))
+                .map(e -> forward ? e.getTarget() : e.getSource())
+                .iterator();
+    }
 }
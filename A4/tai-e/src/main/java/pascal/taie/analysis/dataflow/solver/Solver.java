@@ -23,7 +23,9 @@
 package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MutableNodeResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
 /**
@@ -55,8 +57,8 @@ public abstract class Solver<Node, Fact> {
      * @param cfg control-flow graph where the analysis is performed on
      * @return the analysis result
      */
-    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = initialize(cfg);
+    public NodeResult<Node, Fact> solve(CFG<Node> cfg) {
+        MutableNodeResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
         return result;
     }
@@ -66,8 +68,8 @@ public abstract class Solver<Node, Fact> {
      *
      * @return the initialized data-flow result
      */
-    private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+    private MutableNodeResult<Node, Fact> initialize(CFG<Node> cfg) {
+        MutableNodeResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,18 +78,29 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
-    protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    /**
+     * Creates a new data-flow result, which does not hold any facts yet,
+     * for given CFG. By default, the result is array-based if the nodes
+     * of the CFG are statements, see {@link IndexedDataflowResult}.
+     * Subclasses may override this method to provide results of
+     * other representations.
+     */
+    protected MutableNodeResult<Node, Fact> newResult(CFG<Node> cfg) {
+        return IndexedDataflowResult.make(cfg);
+    }
+
+    protected void initializeForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         // Unused
     }
 
-    protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void initializeBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         // Unused
     }
 
     /**
      * Solves the data-flow problem for given CFG.
      */
-    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    private void doSolve(CFG<Node> cfg, MutableNodeResult<Node, Fact> result) {
         if (analysis.isForward()) {
             doSolveForward(cfg, result);
         } else {
@@ -95,7 +108,7 @@ public abstract class Solver<Node, Fact> {
         }
     }
 
-    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    protected abstract void doSolveForward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result);
 
-    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    protected abstract void doSolveBackward(CFG<Node> cfg, MutableNodeResult<Node, Fact> result);
 }
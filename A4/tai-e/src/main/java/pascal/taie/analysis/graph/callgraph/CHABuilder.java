@@ -27,24 +27,43 @@ import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
-import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchyIndex;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.Sets;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Implementation of the CHA algorithm.
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
-    private ClassHierarchy hierarchy;
+    /**
+     * Subtype closures and dispatch results shared by all call sites.
+     */
+    private ClassHierarchyIndex index;
+
+    /**
+     * Number of threads for building call graph.
+     * If it is greater than 1, the call graph is built in parallel.
+     */
+    private final int parallelism;
+
+    CHABuilder(int parallelism) {
+        this.parallelism = parallelism;
+    }
 
     @Override
     public CallGraph<Invoke, JMethod> build() {
-        hierarchy = World.get().getClassHierarchy();
-        return buildCallGraph(World.get().getMainMethod());
+        index = new ClassHierarchyIndex(World.get().getClassHierarchy());
+        JMethod entry = World.get().getMainMethod();
+        return parallelism > 1 ?
+                buildCallGraphInParallel(entry) : buildCallGraph(entry);
     }
 
     private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
@@ -71,6 +90,58 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         return callGraph;
     }
 
+    /**
+     * Builds call graph by processing the reachable methods in waves.
+     * Each wave resolves the call sites of the methods that are newly
+     * reached by the previous wave, and the methods of a wave are
+     * processed concurrently. All data shared by the workers,
+     * i.e., {@link ClassHierarchyIndex}, the call graph and
+     * the set of reached methods, are thread-safe.
+     */
+    private CallGraph<Invoke, JMethod> buildCallGraphInParallel(JMethod entry) {
+        ConcurrentCallGraph callGraph = new ConcurrentCallGraph();
+        callGraph.addEntryMethod(entry);
+        Set<JMethod> reached = Sets.newConcurrentSet();
+        reached.add(entry);
+        List<JMethod> frontier = List.of(entry);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (!frontier.isEmpty()) {
+                // native models may not be thread-safe, thus the IRs of
+                // native methods are built before dispatching the wave
+                frontier.stream()
+                        .filter(JMethod::isNative)
+                        .forEach(JMethod::getIR);
+                Queue<JMethod> next = new ConcurrentLinkedQueue<>();
+                List<JMethod> wave = frontier;
+                pool.submit(() -> wave.parallelStream().forEach(method -> {
+                    if (!method.isAbstract()) {
+                        // builds IR outside the lock of call graph
+                        method.getIR();
+                    }
+                    callGraph.addReachableMethod(method);
+                    if (method.isAbstract()) {
+                        return;
+                    }
+                    for (Stmt stmt : method.getIR()) {
+                        if (stmt instanceof Invoke invoke) {
+                            for (JMethod target : resolve(invoke)) {
+                                callGraph.addEdge(new Edge<>(CallKind.VIRTUAL, invoke, target));
+                                if (reached.add(target)) {
+                                    next.add(target);
+                                }
+                            }
+                        }
+                    }
+                })).join();
+                frontier = List.copyOf(next);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return callGraph;
+    }
+
     /**
      * Resolves call targets (callees) of a call site via CHA.
      */
@@ -87,15 +158,12 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         }
 
         if (callSite.isSpecial()) {
-            JMethod jmethod = dispatch(jclass, subsignature);
+            JMethod jmethod = index.dispatch(jclass, subsignature);
             targets.add(jmethod);
         }
         if (callSite.isVirtual() || callSite.isInterface()) {
-
-            List<JClass> jclassList = getAllSubclassesOf(jclass);
-            jclassList.add(jclass);
-            for (JClass subclass : jclassList) {
-                JMethod jmethodSubclass = dispatch(subclass, subsignature);
+            for (JClass subclass : index.getAllSubtypesOf(jclass)) {
+                JMethod jmethodSubclass = index.dispatch(subclass, subsignature);
                 if (jmethodSubclass != null) {
                     targets.add(jmethodSubclass);
                 }
@@ -103,44 +171,4 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         }
         return targets;
     }
-
-    /**
-     * Looks up the target method based on given class and method subsignature.
-     *
-     * @return the dispatched target method, or null if no satisfying method
-     * can be found.
-     */
-    private JMethod dispatch(JClass jclass, Subsignature subsignature) {
-        // TODO - finish me
-        JMethod jMethod = jclass.getDeclaredMethod(subsignature);
-        if (jMethod != null && !jMethod.isAbstract()) {
-            return jMethod;
-        }
-        JClass superClass = jclass.getSuperClass();
-        if (superClass == null) {
-            return null;
-        }
-        return dispatch(superClass, subsignature);
-    }
-
-    private List<JClass> getAllSubclassesOf(JClass jclass) {
-        List<JClass> result = new ArrayList<>();
-        Collection<JClass> directSubclasses = hierarchy.getDirectSubclassesOf(jclass);
-        for (JClass item : directSubclasses) {
-            result.add(item);
-            result.addAll(getAllSubclassesOf(item));
-        }
-        Collection<JClass> directImplementors = hierarchy.getDirectImplementorsOf(jclass);
-        for (JClass item : directImplementors) {
-            result.add(item);
-            result.addAll(getAllSubclassesOf(item));
-        }
-        Collection<JClass> directSubinterfaces = hierarchy.getDirectSubinterfacesOf(jclass);
-        for (JClass item : directSubinterfaces) {
-            result.add(item);
-            result.addAll(getAllSubclassesOf(item));
-        }
-
-        return result;
-    }
 }
@@ -32,6 +32,7 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.ClassHierarchyImpl;
 import pascal.taie.language.classes.JMethod;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.Comparator;
 
@@ -48,21 +49,49 @@ public class CallGraphBuilder extends ProgramAnalysis {
 
     private final String algorithm;
 
+    /**
+     * Number of threads for building call graph, or 0 for
+     * all available processors. By default, call graph is built
+     * sequentially. Currently, only CHA supports parallel building.
+     */
+    private final int parallelism;
+
     public CallGraphBuilder(AnalysisConfig config) {
         super(config);
         algorithm = config.getOptions().getString("algorithm");
+        if (config.getOptions().get("parallel") == null) {
+            parallelism = 1;
+        } else {
+            int n = config.getOptions().getInt("parallel");
+            parallelism = n > 0 ? n : Runtime.getRuntime().availableProcessors();
+        }
     }
 
     @Override
     public CallGraph<Invoke, JMethod> analyze() {
         CGBuilder<Invoke, JMethod> builder;
         if (algorithm.equals("cha")) {
-            builder = new CHABuilder();
+            builder = new CHABuilder(parallelism);
+        } else if (algorithm.equals("rta")) {
+            builder = new RTABuilder();
         } else {
             throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
         }
         ClassHierarchyImpl.setCheckCHA(true);
-        CallGraph<Invoke, JMethod> callGraph = builder.build();
+        // option "cache" specifies the directory of call graph cache
+        String cacheDir = getOptions().getString("cache");
+        CallGraphCache cache = cacheDir == null ? null :
+                new CallGraphCache(new File(cacheDir), algorithm);
+        CallGraph<Invoke, JMethod> callGraph = cache == null ? null : cache.load();
+        if (callGraph == null) {
+            callGraph = builder.build();
+            if (cache != null) {
+                cache.store(callGraph);
+            }
+        }
+        // the call graph is complete after building, thus we freeze it
+        // into compact form for the downstream analyses
+        callGraph = new CompactCallGraph(callGraph);
         ClassHierarchyImpl.setCheckCHA(false);
         takeAction(callGraph);
         return callGraph;
@@ -0,0 +1,287 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.Options;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of call graphs.
+ * <p>
+ * A call graph is stored in a binary file named by the hash of everything
+ * it depends on, i.e., the contents of the class path, the main class,
+ * the options for building the world, and the call graph algorithm.
+ * Methods are stored by their signatures, and call sites are stored by
+ * their containers and indexes in the IR of the containers.
+ * If any of these can not be found in the current world when loading,
+ * the cache entry is treated as invalid and the call graph is rebuilt.
+ */
+class CallGraphCache {
+
+    private static final Logger logger = LogManager.getLogger(CallGraphCache.class);
+
+    /**
+     * Magic number of cache files.
+     */
+    private static final int MAGIC = 0x54434347; // "TCCG"
+
+    /**
+     * Version of the format of cache files. Update it whenever the format
+     * or the algorithms that may change the call graphs are changed.
+     */
+    private static final int VERSION = 1;
+
+    private static final CallKind[] KINDS = CallKind.values();
+
+    private final File file;
+
+    /**
+     * @param dir       directory holding the cache files
+     * @param algorithm call graph algorithm
+     */
+    CallGraphCache(File dir, String algorithm) {
+        this.file = new File(dir, computeKey(algorithm) + ".cg");
+    }
+
+    /**
+     * @return the hash of all inputs of the call graph.
+     */
+    private static String computeKey(String algorithm) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        Options options = World.get().getOptions();
+        update(digest, "version:" + VERSION);
+        update(digest, "algorithm:" + algorithm);
+        update(digest, "main:" + options.getMainClass());
+        update(digest, "java:" + options.getJavaVersion());
+        update(digest, "prepend-JVM:" + options.isPrependJVM());
+        if (options.isPrependJVM()) {
+            update(digest, "JVM:" + System.getProperty("java.home")
+                    + System.getProperty("java.runtime.version"));
+        }
+        update(digest, "scope:" + options.getScope());
+        update(digest, "native-model:" + options.enableNativeModel());
+        String classPath = options.getClassPath();
+        if (classPath != null) {
+            for (String entry : classPath.split(File.pathSeparator)) {
+                update(digest, "cp:" + entry);
+                hashPath(digest, Path.of(entry));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes the names and contents of all files under given path,
+     * in a fixed order.
+     */
+    private static void hashPath(MessageDigest digest, Path path) {
+        try (Stream<Path> files = Files.walk(path)) {
+            List<Path> sorted = files.filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+            byte[] buffer = new byte[8192];
+            for (Path f : sorted) {
+                update(digest, path.relativize(f).toString());
+                try (InputStream in = new DigestInputStream(
+                        Files.newInputStream(f), digest)) {
+                    while (in.read(buffer) != -1) {
+                        // content is consumed by the digest
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // missing class path entries do not contribute to the key
+            update(digest, "missing");
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Loads the call graph from the cache.
+     *
+     * @return the cached call graph, or null if the cache does not
+     * contain a valid call graph for current inputs.
+     */
+    @Nullable
+    CallGraph<Invoke, JMethod> load() {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            CallGraph<Invoke, JMethod> callGraph = read(in);
+            if (callGraph == null) {
+                logger.warn("Call graph cache {} is stale, ignore it", file);
+            } else {
+                logger.info("Loaded call graph from {}", file);
+            }
+            return callGraph;
+        } catch (IOException | IndexOutOfBoundsException
+                 | IllegalArgumentException e) {
+            // IllegalArgumentException is thrown on negative counts
+            // read from corrupted files
+            logger.warn("Failed to load call graph cache {}: {}", file, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static CallGraph<Invoke, JMethod> read(DataInputStream in)
+            throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            return null;
+        }
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        int nMethods = in.readInt();
+        List<JMethod> methods = new ArrayList<>(nMethods);
+        for (int i = 0; i < nMethods; ++i) {
+            JMethod method = getMethod(hierarchy, in.readUTF());
+            if (method == null) {
+                return null;
+            }
+            methods.add(method);
+        }
+        DefaultCallGraph callGraph = new DefaultCallGraph();
+        int nEntries = in.readInt();
+        for (int i = 0; i < nEntries; ++i) {
+            callGraph.addEntryMethod(methods.get(in.readInt()));
+        }
+        methods.forEach(callGraph::addReachableMethod);
+        int nEdges = in.readInt();
+        for (int i = 0; i < nEdges; ++i) {
+            JMethod container = methods.get(in.readInt());
+            int index = in.readInt();
+            JMethod callee = methods.get(in.readInt());
+            int kind = in.readByte();
+            if (container.isAbstract() ||
+                    index >= container.getIR().getStmts().size() ||
+                    !(container.getIR().getStmt(index) instanceof Invoke callSite) ||
+                    kind < 0 || kind >= KINDS.length) {
+                return null;
+            }
+            callGraph.addEdge(new Edge<>(KINDS[kind], callSite, callee));
+        }
+        return callGraph;
+    }
+
+    @Nullable
+    private static JMethod getMethod(ClassHierarchy hierarchy, String signature) {
+        JClass jclass = hierarchy.getClass(StringReps.getClassNameOf(signature));
+        return jclass == null ? null : jclass.getDeclaredMethod(
+                Subsignature.get(StringReps.getSubsignatureOf(signature)));
+    }
+
+    /**
+     * Stores given call graph into the cache. Failures are logged
+     * and otherwise ignored, as the cache is only an optimization.
+     */
+    void store(CallGraph<Invoke, JMethod> callGraph) {
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Path temp = Files.createTempFile(
+                    file.getParentFile().toPath(), file.getName(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(callGraph, out);
+            }
+            // replaces the file atomically, so that concurrent runs never
+            // see partially written cache files
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.info("Stored call graph to {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to store call graph cache {}: {}", file, e);
+        }
+    }
+
+    private static void write(CallGraph<Invoke, JMethod> callGraph,
+                              DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        List<JMethod> methods = callGraph.reachableMethods().toList();
+        Map<JMethod, Integer> ids = Maps.newMap(methods.size());
+        out.writeInt(methods.size());
+        for (JMethod method : methods) {
+            ids.put(method, ids.size());
+            out.writeUTF(method.getSignature());
+        }
+        List<JMethod> entries = callGraph.entryMethods().toList();
+        out.writeInt(entries.size());
+        for (JMethod entry : entries) {
+            out.writeInt(ids.get(entry));
+        }
+        out.writeInt(callGraph.getNumberOfEdges());
+        for (Edge<Invoke, JMethod> edge :
+                (Iterable<Edge<Invoke, JMethod>>) callGraph.edges()::iterator) {
+            Invoke callSite = edge.getCallSite();
+            out.writeInt(ids.get(callGraph.getContainerOf(callSite)));
+            out.writeInt(callSite.getIndex());
+            out.writeInt(ids.get(edge.getCallee()));
+            out.writeByte(edge.getKind().ordinal());
+        }
+    }
+}
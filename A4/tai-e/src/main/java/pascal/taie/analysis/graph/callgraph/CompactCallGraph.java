@@ -0,0 +1,545 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Frozen call graph in compact form.
+ * <p>
+ * Methods and call sites are numbered, and the call sites of each method
+ * take consecutive numbers. All relations are stored in compressed sparse
+ * row (CSR) form: the targets of source {@code i} are
+ * {@code targets[begin[i]] ... targets[begin[i + 1] - 1]}.
+ * Queries return read-only views over these arrays instead of
+ * building new sets, and graph algorithms can iterate the numbers
+ * directly via {@link #getMethodId(JMethod)}, {@link #entryMethodIds()}
+ * and {@link #forEachSuccId(int, IntConsumer)}.
+ * <p>
+ * This call graph is immutable. It is obtained from a call graph
+ * whose construction has finished via {@link #CompactCallGraph(CallGraph)}.
+ */
+public class CompactCallGraph implements CallGraph<Invoke, JMethod> {
+
+    private static final CallKind[] KINDS = CallKind.values();
+
+    private final JMethod[] methods;
+
+    private final Map<JMethod, Integer> methodIds;
+
+    private final int[] entryIds;
+
+    private final Invoke[] callSites;
+
+    private final Map<Invoke, Integer> callSiteIds;
+
+    /**
+     * Container of each call site.
+     */
+    private final int[] containers;
+
+    /**
+     * Call sites of method i are callSiteBegin[i] ... callSiteBegin[i + 1] - 1.
+     */
+    private final int[] callSiteBegin;
+
+    /**
+     * Edges out of each call site, in CSR form.
+     * Each edge is identified by its position in these arrays.
+     */
+    private final int[] edgeBegin;
+
+    private final int[] edgeCallees;
+
+    private final byte[] edgeKinds;
+
+    private final int[] edgeCallSites;
+
+    /**
+     * Distinct callees of each call site.
+     */
+    private final int[] calleeBegin;
+
+    private final int[] callees;
+
+    /**
+     * Distinct call sites calling each method.
+     */
+    private final int[] callerBegin;
+
+    private final int[] callers;
+
+    /**
+     * Distinct callees of each method.
+     */
+    private final int[] succBegin;
+
+    private final int[] succs;
+
+    /**
+     * Distinct callers (containers of call sites) of each method.
+     */
+    private final int[] predBegin;
+
+    private final int[] preds;
+
+    /**
+     * Edges into each method.
+     */
+    private final int[] inEdgeBegin;
+
+    private final int[] inEdges;
+
+    public CompactCallGraph(CallGraph<Invoke, JMethod> callGraph) {
+        // number methods
+        methods = callGraph.reachableMethods().toArray(JMethod[]::new);
+        int nMethods = methods.length;
+        methodIds = Maps.newMap(nMethods);
+        for (int i = 0; i < nMethods; ++i) {
+            methodIds.put(methods[i], i);
+        }
+        entryIds = callGraph.entryMethods()
+                .mapToInt(this::getMethodId)
+                .toArray();
+        // number call sites, consecutively for each method
+        callSiteBegin = new int[nMethods + 1];
+        for (int i = 0; i < nMethods; ++i) {
+            callSiteBegin[i + 1] = callSiteBegin[i] +
+                    callGraph.getCallSitesIn(methods[i]).size();
+        }
+        int nCallSites = callSiteBegin[nMethods];
+        callSites = new Invoke[nCallSites];
+        callSiteIds = Maps.newMap(nCallSites);
+        containers = new int[nCallSites];
+        for (int i = 0; i < nMethods; ++i) {
+            int cs = callSiteBegin[i];
+            for (Invoke callSite : callGraph.getCallSitesIn(methods[i])) {
+                callSites[cs] = callSite;
+                callSiteIds.put(callSite, cs);
+                containers[cs] = i;
+                ++cs;
+            }
+        }
+        // collect edges grouped by call sites
+        int nEdges = callGraph.getNumberOfEdges();
+        edgeBegin = new int[nCallSites + 1];
+        edgeCallees = new int[nEdges];
+        edgeKinds = new byte[nEdges];
+        int e = 0;
+        for (int cs = 0; cs < nCallSites; ++cs) {
+            edgeBegin[cs] = e;
+            for (Iterator<Edge<Invoke, JMethod>> it =
+                 callGraph.edgesOutOf(callSites[cs]).iterator(); it.hasNext(); ) {
+                Edge<Invoke, JMethod> edge = it.next();
+                int callee = getMethodId(edge.getCallee());
+                if (callee < 0) {
+                    throw new AnalysisException("Callee " + edge.getCallee() +
+                            " of " + edge.getCallSite() + " is not reachable");
+                }
+                edgeCallees[e] = callee;
+                edgeKinds[e] = (byte) edge.getKind().ordinal();
+                ++e;
+            }
+        }
+        edgeBegin[nCallSites] = e;
+        edgeCallSites = new int[nEdges];
+        for (int cs = 0; cs < nCallSites; ++cs) {
+            Arrays.fill(edgeCallSites, edgeBegin[cs], edgeBegin[cs + 1], cs);
+        }
+        // invert edges by counting sort on callees
+        inEdgeBegin = new int[nMethods + 1];
+        for (int i = 0; i < nEdges; ++i) {
+            ++inEdgeBegin[edgeCallees[i] + 1];
+        }
+        for (int i = 0; i < nMethods; ++i) {
+            inEdgeBegin[i + 1] += inEdgeBegin[i];
+        }
+        inEdges = new int[nEdges];
+        int[] fill = Arrays.copyOf(inEdgeBegin, nMethods);
+        for (int i = 0; i < nEdges; ++i) {
+            inEdges[fill[edgeCallees[i]]++] = i;
+        }
+        // compute distinct relations
+        CSRBuilder builder = new CSRBuilder(nCallSites, nMethods);
+        for (int cs = 0; cs < nCallSites; ++cs) {
+            builder.startSource();
+            for (int i = edgeBegin[cs]; i < edgeBegin[cs + 1]; ++i) {
+                builder.addTarget(edgeCallees[i]);
+            }
+        }
+        calleeBegin = builder.getBegin();
+        callees = builder.getTargets();
+        builder = new CSRBuilder(nMethods, nCallSites);
+        for (int m = 0; m < nMethods; ++m) {
+            builder.startSource();
+            for (int i = inEdgeBegin[m]; i < inEdgeBegin[m + 1]; ++i) {
+                builder.addTarget(edgeCallSites[inEdges[i]]);
+            }
+        }
+        callerBegin = builder.getBegin();
+        callers = builder.getTargets();
+        builder = new CSRBuilder(nMethods, nMethods);
+        for (int m = 0; m < nMethods; ++m) {
+            builder.startSource();
+            for (int i = calleeBegin[callSiteBegin[m]];
+                 i < calleeBegin[callSiteBegin[m + 1]]; ++i) {
+                builder.addTarget(callees[i]);
+            }
+        }
+        succBegin = builder.getBegin();
+        succs = builder.getTargets();
+        builder = new CSRBuilder(nMethods, nMethods);
+        for (int m = 0; m < nMethods; ++m) {
+            builder.startSource();
+            for (int i = callerBegin[m]; i < callerBegin[m + 1]; ++i) {
+                builder.addTarget(containers[callers[i]]);
+            }
+        }
+        predBegin = builder.getBegin();
+        preds = builder.getTargets();
+    }
+
+    /**
+     * Builds CSR arrays of a relation whose sources are added in order,
+     * ignoring duplicate targets of the same source.
+     */
+    private static class CSRBuilder {
+
+        private final int[] begin;
+
+        private int[] targets = new int[16];
+
+        private int size = 0;
+
+        private int source = -1;
+
+        /**
+         * stamps[t] is the last source that has target t.
+         */
+        private final int[] stamps;
+
+        private CSRBuilder(int nSources, int nTargets) {
+            begin = new int[nSources + 1];
+            stamps = new int[nTargets];
+            Arrays.fill(stamps, -1);
+        }
+
+        private void startSource() {
+            begin[++source] = size;
+        }
+
+        private void addTarget(int target) {
+            if (stamps[target] != source) {
+                stamps[target] = source;
+                if (size == targets.length) {
+                    targets = Arrays.copyOf(targets, size * 2);
+                }
+                targets[size++] = target;
+            }
+        }
+
+        private int[] getBegin() {
+            begin[begin.length - 1] = size;
+            return begin;
+        }
+
+        private int[] getTargets() {
+            return Arrays.copyOf(targets, size);
+        }
+    }
+
+    // Numbering-based queries.
+
+    /**
+     * @return the number of given method, or -1 if the method
+     * is not in this call graph.
+     */
+    public int getMethodId(JMethod method) {
+        Integer id = methodIds.get(method);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Applies given action to the numbers of the callees of given method.
+     */
+    public void forEachSuccId(int methodId, IntConsumer action) {
+        for (int i = succBegin[methodId]; i < succBegin[methodId + 1]; ++i) {
+            action.accept(succs[i]);
+        }
+    }
+
+    /**
+     * @return the numbers of entry methods.
+     */
+    public IntStream entryMethodIds() {
+        return Arrays.stream(entryIds);
+    }
+
+    // Implementation for CallGraph interface.
+
+    @Override
+    public Set<Invoke> getCallersOf(JMethod callee) {
+        int m = getMethodId(callee);
+        return m < 0 ? Set.of() :
+                new ArrayView<>(callSites, callers, callerBegin[m], callerBegin[m + 1]);
+    }
+
+    @Override
+    public Set<JMethod> getCalleesOf(Invoke callSite) {
+        Integer cs = callSiteIds.get(callSite);
+        return cs == null ? Set.of() :
+                new ArrayView<>(methods, callees, calleeBegin[cs], calleeBegin[cs + 1]);
+    }
+
+    @Override
+    public Set<JMethod> getCalleesOfM(JMethod caller) {
+        return getSuccsOf(caller);
+    }
+
+    @Override
+    public JMethod getContainerOf(Invoke callSite) {
+        Integer cs = callSiteIds.get(callSite);
+        return cs == null ? null : methods[containers[cs]];
+    }
+
+    @Override
+    public Set<Invoke> getCallSitesIn(JMethod method) {
+        int m = getMethodId(method);
+        return m < 0 ? Set.of() :
+                new ArrayView<>(callSites, null, callSiteBegin[m], callSiteBegin[m + 1]);
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edgesOutOf(Invoke callSite) {
+        Integer cs = callSiteIds.get(callSite);
+        return cs == null ? Stream.of() :
+                IntStream.range(edgeBegin[cs], edgeBegin[cs + 1])
+                        .mapToObj(this::getEdge);
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edgesInTo(JMethod method) {
+        int m = getMethodId(method);
+        return m < 0 ? Stream.of() :
+                IntStream.range(inEdgeBegin[m], inEdgeBegin[m + 1])
+                        .mapToObj(i -> getEdge(inEdges[i]));
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edges() {
+        return IntStream.range(0, edgeCallees.length)
+                .mapToObj(this::getEdge);
+    }
+
+    private Edge<Invoke, JMethod> getEdge(int e) {
+        return new Edge<>(KINDS[edgeKinds[e]],
+                callSites[edgeCallSites[e]], methods[edgeCallees[e]]);
+    }
+
+    @Override
+    public int getNumberOfEdges() {
+        return edgeCallees.length;
+    }
+
+    @Override
+    public Stream<JMethod> entryMethods() {
+        return Arrays.stream(entryIds).mapToObj(id -> methods[id]);
+    }
+
+    @Override
+    public Stream<JMethod> reachableMethods() {
+        return Arrays.stream(methods);
+    }
+
+    @Override
+    public int getNumberOfMethods() {
+        return methods.length;
+    }
+
+    @Override
+    public boolean contains(JMethod method) {
+        return methodIds.containsKey(method);
+    }
+
+    // Implementation for Graph interface.
+
+    @Override
+    public boolean hasNode(JMethod node) {
+        return contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(JMethod source, JMethod target) {
+        int s = getMethodId(source), t = getMethodId(target);
+        if (s < 0 || t < 0) {
+            return false;
+        }
+        for (int i = succBegin[s]; i < succBegin[s + 1]; ++i) {
+            if (succs[i] == t) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<MethodEdge<Invoke, JMethod>> getInEdgesOf(JMethod method) {
+        return getCallersOf(method)
+                .stream()
+                .map(cs -> new MethodEdge<>(getContainerOf(cs), method, cs))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<MethodEdge<Invoke, JMethod>> getOutEdgesOf(JMethod method) {
+        return callSitesIn(method)
+                .flatMap(cs -> getCalleesOf(cs)
+                        .stream()
+                        .map(callee -> new MethodEdge<>(method, callee, cs)))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<JMethod> getPredsOf(JMethod node) {
+        int m = getMethodId(node);
+        return m < 0 ? Set.of() :
+                new ArrayView<>(methods, preds, predBegin[m], predBegin[m + 1]);
+    }
+
+    @Override
+    public Set<JMethod> getSuccsOf(JMethod node) {
+        int m = getMethodId(node);
+        return m < 0 ? Set.of() :
+                new ArrayView<>(methods, succs, succBegin[m], succBegin[m + 1]);
+    }
+
+    @Override
+    public int getInDegreeOf(JMethod node) {
+        // in edges are distinct (caller, callee, call site) triples
+        int m = getMethodId(node);
+        return m < 0 ? 0 : callerBegin[m + 1] - callerBegin[m];
+    }
+
+    @Override
+    public int getOutDegreeOf(JMethod node) {
+        int m = getMethodId(node);
+        return m < 0 ? 0 : calleeBegin[callSiteBegin[m + 1]]
+                - calleeBegin[callSiteBegin[m]];
+    }
+
+    @Override
+    public Set<JMethod> getNodes() {
+        return Collections.unmodifiableSet(methodIds.keySet());
+    }
+
+    // Implementation for StmtResult interface.
+
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public Set<JMethod> getResult(Stmt stmt) {
+        return getCalleesOf((Invoke) stmt);
+    }
+
+    /**
+     * Read-only set view of elements[ids[i]] (or elements[i] if ids is null)
+     * for i in [from, to). The elements are distinct by construction.
+     */
+    private static class ArrayView<E> extends AbstractSet<E> {
+
+        private final E[] elements;
+
+        private final int[] ids;
+
+        private final int from;
+
+        private final int to;
+
+        private ArrayView(E[] elements, int[] ids, int from, int to) {
+            this.elements = elements;
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        private E get(int i) {
+            return elements[ids == null ? i : ids[i]];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int i = from; i < to; ++i) {
+                if (get(i).equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int cursor = from;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < to;
+                }
+
+                @Override
+                public E next() {
+                    if (cursor >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(cursor++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Thread-safe variant of {@link DefaultCallGraph}, which allows call graph
+ * builders to add methods and edges from multiple threads.
+ * <p>
+ * Only the modifications are synchronized, so queries should be issued
+ * after the construction finishes. As {@link #addReachableMethod(JMethod)}
+ * scans the IR of the method while holding the lock, builders should
+ * build the IR (via {@link JMethod#getIR()}) before adding the method,
+ * so that IR construction is not serialized.
+ */
+public class ConcurrentCallGraph extends DefaultCallGraph {
+
+    @Override
+    public synchronized void addEntryMethod(JMethod entryMethod) {
+        super.addEntryMethod(entryMethod);
+    }
+
+    @Override
+    public synchronized boolean addReachableMethod(JMethod method) {
+        return super.addReachableMethod(method);
+    }
+
+    @Override
+    public synchronized boolean addEdge(Edge<Invoke, JMethod> edge) {
+        return super.addEdge(edge);
+    }
+}
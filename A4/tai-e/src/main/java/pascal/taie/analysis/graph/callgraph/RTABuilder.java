@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchyIndex;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Implementation of Rapid Type Analysis (RTA).
+ * <p>
+ * Compared with CHA, RTA only dispatches virtual calls on the classes
+ * that are instantiated (by {@link New} statements) in reachable methods.
+ * As the instantiated classes grow with the reachable methods,
+ * the virtual call sites are kept as pending, and they are resolved
+ * again on the newly instantiated classes incrementally.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchyIndex index;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    /**
+     * Classes instantiated in reachable methods.
+     */
+    private Set<JClass> instantiatedClasses;
+
+    /**
+     * Instantiated classes grouped by their supertypes (including
+     * themselves), i.e., the receiver types on which a call site whose
+     * method reference is declared in the supertype is dispatched.
+     */
+    private MultiMap<JClass, JClass> instantiatedSubtypes;
+
+    /**
+     * Virtual (and interface) call sites in reachable methods,
+     * grouped by the declaring classes of their method references.
+     */
+    private MultiMap<JClass, Invoke> pendingCallSites;
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        index = new ClassHierarchyIndex(World.get().getClassHierarchy());
+        callGraph = new DefaultCallGraph();
+        workList = new ArrayDeque<>();
+        instantiatedClasses = Sets.newSet();
+        instantiatedSubtypes = Maps.newMultiMap();
+        pendingCallSites = Maps.newMultiMap();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                processNewMethod(method);
+            }
+        }
+        return callGraph;
+    }
+
+    private void processNewMethod(JMethod method) {
+        if (method.isAbstract()) {
+            return;
+        }
+        // instantiates classes first, so that call sites in this method
+        // are resolved on the classes created by the method itself
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof New newStmt
+                    && newStmt.getRValue() instanceof NewInstance newInstance) {
+                JClass jclass = newInstance.getType().getJClass();
+                if (jclass != null && instantiatedClasses.add(jclass)) {
+                    processNewClass(jclass);
+                }
+            }
+        }
+        for (Invoke callSite : callGraph.getCallSitesIn(method)) {
+            MethodRef methodRef = callSite.getMethodRef();
+            JClass jclass = methodRef.getDeclaringClass();
+            if (callSite.isStatic()) {
+                addEdge(callSite, jclass.getDeclaredMethod(methodRef.getSubsignature()));
+            } else if (callSite.isSpecial()) {
+                addEdge(callSite, index.dispatch(jclass, methodRef.getSubsignature()));
+            } else if (callSite.isVirtual() || callSite.isInterface()) {
+                pendingCallSites.put(jclass, callSite);
+                for (JClass subtype : instantiatedSubtypes.get(jclass)) {
+                    addEdge(callSite, index.dispatch(
+                            subtype, methodRef.getSubsignature()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a newly instantiated class in {@link #instantiatedSubtypes}
+     * and resolves the pending call sites on it. Such call sites are
+     * declared in the supertypes of the class, thus they are looked up by
+     * walking up the hierarchy instead of testing every pending call site.
+     */
+    private void processNewClass(JClass jclass) {
+        Set<JClass> visited = Sets.newSet();
+        Deque<JClass> supertypes = new ArrayDeque<>();
+        supertypes.push(jclass);
+        while (!supertypes.isEmpty()) {
+            JClass supertype = supertypes.pop();
+            if (visited.add(supertype)) {
+                instantiatedSubtypes.put(supertype, jclass);
+                for (Invoke callSite : pendingCallSites.get(supertype)) {
+                    addEdge(callSite, index.dispatch(jclass,
+                            callSite.getMethodRef().getSubsignature()));
+                }
+                if (supertype.getSuperClass() != null) {
+                    supertypes.push(supertype.getSuperClass());
+                }
+                supertype.getInterfaces().forEach(supertypes::push);
+            }
+        }
+    }
+
+    private void addEdge(Invoke callSite, JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            workList.add(callee);
+        }
+    }
+}
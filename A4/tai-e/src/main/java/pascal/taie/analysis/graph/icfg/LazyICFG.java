@@ -0,0 +1,281 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ICFG that materializes the edges of each method on demand.
+ * <p>
+ * The intra-procedural edges of a method, and the call/return edges
+ * that enter and leave it, are built when a node of the method is first
+ * queried. The edge tables are kept in an LRU cache of bounded number of
+ * methods, and the evicted ones are rebuilt from the CFGs and the call
+ * graph when they are queried again. Thus, the memory of ICFG edges is
+ * proportional to the methods that the client is working on, instead
+ * of the whole call graph.
+ */
+class LazyICFG extends AbstractICFG<JMethod, Stmt> {
+
+    private static final Logger logger = LogManager.getLogger(LazyICFG.class);
+
+    /**
+     * LRU cache of the edge tables of methods.
+     */
+    private final Map<JMethod, MethodEdges> edgesCache;
+
+    /**
+     * Containing methods of the nodes of the methods registered so far.
+     */
+    private final Map<Stmt, JMethod> stmtToMethod = new LinkedHashMap<>();
+
+    private final Set<JMethod> registeredMethods = Sets.newSet();
+
+    /**
+     * Whether all reachable methods have been registered.
+     */
+    private boolean allRegistered = false;
+
+    LazyICFG(CallGraph<Stmt, JMethod> callGraph, int cacheSize) {
+        super(callGraph);
+        this.edgesCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<JMethod, MethodEdges> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        MethodEdges edges = getEdgesOf(stmt);
+        return edges == null ? Set.of() :
+                edges.inEdges.getOrDefault(stmt, Set.of());
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        MethodEdges edges = getEdgesOf(stmt);
+        return edges == null ? Set.of() :
+                edges.outEdges.getOrDefault(stmt, Set.of());
+    }
+
+    /**
+     * @return the edge tables of the method containing {@code stmt},
+     * or null if {@code stmt} is not in this ICFG.
+     */
+    @Nullable
+    private MethodEdges getEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        if (method == null) {
+            return null;
+        }
+        MethodEdges edges = edgesCache.get(method);
+        if (edges == null) {
+            edges = new MethodEdges(method);
+            edgesCache.put(method, edges);
+        }
+        return edges;
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return registerMethod(method).getEntry();
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return registerMethod(method).getExit();
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt stmt) {
+        assert isCallSite(stmt);
+        return ICFGBuilder.getCFGOf(getContainingMethodOf(stmt)).getSuccsOf(stmt);
+    }
+
+    @Override
+    public JMethod getContainingMethodOf(Stmt stmt) {
+        JMethod method = stmtToMethod.get(stmt);
+        if (method == null && !allRegistered) {
+            // the node is not in a registered method, thus
+            // we register all methods to find it
+            callGraph.forEach(this::registerMethod);
+            allRegistered = true;
+            method = stmtToMethod.get(stmt);
+        }
+        return method;
+    }
+
+    /**
+     * Records the containing method of the nodes of {@code method}.
+     *
+     * @return the CFG of {@code method}.
+     */
+    private CFG<Stmt> registerMethod(JMethod method) {
+        CFG<Stmt> cfg = ICFGBuilder.getCFGOf(method);
+        if (registeredMethods.add(method)) {
+            if (cfg == null) {
+                logger.warn("CFG of {} is absent, try to fix this" +
+                        " by adding option -scope=reachable", method);
+            } else {
+                cfg.forEach(stmt -> stmtToMethod.put(stmt, method));
+            }
+        }
+        return cfg;
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public boolean hasNode(Stmt stmt) {
+        return getContainingMethodOf(stmt) != null;
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        return getOutEdgesOf(source)
+                .stream()
+                .anyMatch(edge -> edge.getTarget().equals(target));
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        return Views.toMappedSet(getInEdgesOf(stmt), ICFGEdge::getSource);
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        return Views.toMappedSet(getOutEdgesOf(stmt), ICFGEdge::getTarget);
+    }
+
+    /**
+     * Registers all reachable methods, but does not materialize their edges.
+     */
+    @Override
+    public Set<Stmt> getNodes() {
+        if (!allRegistered) {
+            callGraph.forEach(this::registerMethod);
+            allRegistered = true;
+        }
+        return Collections.unmodifiableSet(stmtToMethod.keySet());
+    }
+
+    private ReturnEdge<Stmt> newReturnEdge(JMethod callee, Stmt callSite, Stmt returnSite) {
+        CFG<Stmt> calleeCFG = registerMethod(callee);
+        Stmt exit = calleeCFG.getExit();
+        Set<Var> retVars = Sets.newHybridSet();
+        Set<ClassType> exceptions = Sets.newHybridSet();
+        calleeCFG.getInEdgesOf(exit).forEach(retEdge -> {
+            if (retEdge.getKind() == Edge.Kind.RETURN) {
+                Return ret = (Return) retEdge.getSource();
+                if (ret.getValue() != null) {
+                    retVars.add(ret.getValue());
+                }
+            }
+            if (retEdge.isExceptional()) {
+                exceptions.addAll(retEdge.getExceptions());
+            }
+        });
+        return new ReturnEdge<>(exit, returnSite, callSite, retVars, exceptions);
+    }
+
+    /**
+     * Edge tables of a method, which contain its intra-procedural edges,
+     * the call edges to its entry and from its call sites, and
+     * the return edges from its exit and to its return sites.
+     */
+    private class MethodEdges {
+
+        private final Map<Stmt, Set<ICFGEdge<Stmt>>> inEdges;
+
+        private final Map<Stmt, Set<ICFGEdge<Stmt>>> outEdges;
+
+        private MethodEdges(JMethod method) {
+            CFG<Stmt> cfg = registerMethod(method);
+            inEdges = Maps.newMap(cfg.getNumberOfNodes());
+            outEdges = Maps.newMap(cfg.getNumberOfNodes());
+            cfg.forEach(stmt -> {
+                for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                    ICFGEdge<Stmt> local = isCallSite(stmt) ?
+                            new CallToReturnEdge<>(edge) : new NormalEdge<>(edge);
+                    addOutEdge(local);
+                    addInEdge(local);
+                }
+                if (isCallSite(stmt)) {
+                    for (JMethod callee : getCalleesOf(stmt)) {
+                        CFG<Stmt> calleeCFG = registerMethod(callee);
+                        if (calleeCFG == null) {
+                            continue;
+                        }
+                        addOutEdge(new CallEdge<>(stmt, calleeCFG.getEntry(), callee));
+                        for (Stmt retSite : cfg.getSuccsOf(stmt)) {
+                            addInEdge(newReturnEdge(callee, stmt, retSite));
+                        }
+                    }
+                }
+            });
+            for (Stmt callSite : getCallersOf(method)) {
+                addInEdge(new CallEdge<>(callSite, cfg.getEntry(), method));
+                CFG<Stmt> callerCFG = registerMethod(
+                        callGraph.getContainerOf(callSite));
+                for (Stmt retSite : callerCFG.getSuccsOf(callSite)) {
+                    addOutEdge(newReturnEdge(method, callSite, retSite));
+                }
+            }
+        }
+
+        private void addInEdge(ICFGEdge<Stmt> edge) {
+            inEdges.computeIfAbsent(edge.getTarget(), __ -> Sets.newHybridSet())
+                    .add(edge);
+        }
+
+        private void addOutEdge(ICFGEdge<Stmt> edge) {
+            outEdges.computeIfAbsent(edge.getSource(), __ -> Sets.newHybridSet())
+                    .add(edge);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import static pascal.taie.util.collection.Maps.newMap;
+import static pascal.taie.util.collection.Sets.newHybridSet;
+
+/**
+ * Precomputed index over a {@link ClassHierarchy} for answering subtype
+ * queries and method dispatch without repeatedly walking the hierarchy.
+ * <p>
+ * Classes (i.e., non-interfaces) form a forest under the superclass
+ * relation, and they are numbered by a DFS over this forest, so that
+ * the subclasses of a class occupy a contiguous range of the DFS order.
+ * This makes subclass tests O(1) and the subclass closure of a class
+ * a view of that range. Interfaces may have multiple super-interfaces,
+ * so their transitive subtypes are computed on demand and cached.
+ * <p>
+ * The subtype relation of this index follows
+ * {@link ClassHierarchy#getDirectSubclassesOf(JClass)},
+ * {@link ClassHierarchy#getDirectImplementorsOf(JClass)} and
+ * {@link ClassHierarchy#getDirectSubinterfacesOf(JClass)}, and it is
+ * reflexive. All queries are thread-safe.
+ */
+public class ClassHierarchyIndex {
+
+    private final ClassHierarchy hierarchy;
+
+    /**
+     * Non-interface classes in DFS pre-order.
+     */
+    private final JClass[] order;
+
+    /**
+     * DFS intervals of non-interface classes. The subclasses of a class
+     * are order[interval.pre()] ... order[interval.last()].
+     */
+    private final Map<JClass, Interval> intervals;
+
+    /**
+     * Transitive subtypes of interfaces, computed lazily.
+     */
+    private final ConcurrentMap<JClass, Set<JClass>> interfaceSubtypes
+            = Maps.newConcurrentMap();
+
+    /**
+     * Memoized dispatch results. Absent targets are recorded as
+     * {@link Optional#empty()} since concurrent maps reject null values.
+     */
+    private final ConcurrentMap<JClass, ConcurrentMap<Subsignature, Optional<JMethod>>>
+            dispatchTable = Maps.newConcurrentMap();
+
+    public ClassHierarchyIndex(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        JClass[] classes = hierarchy.allClasses()
+                .filter(c -> !c.isInterface())
+                .toArray(JClass[]::new);
+        order = new JClass[classes.length];
+        intervals = newMap(classes.length);
+        int counter = 0;
+        for (JClass c : classes) {
+            if (c.getSuperClass() == null) {
+                counter = number(c, counter);
+            }
+        }
+        if (counter < classes.length) {
+            // some classes are unreachable from the roots, e.g., classes
+            // whose superclass is not in the hierarchy; number them
+            // as roots so that each class has its interval
+            for (JClass c : classes) {
+                if (!intervals.containsKey(c)) {
+                    counter = number(c, counter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Numbers the subclass tree rooted at given class in DFS pre-order.
+     *
+     * @return the next available number.
+     */
+    private int number(JClass root, int counter) {
+        // iterative DFS, as the superclass chains of real programs can be
+        // deep enough to overflow the call stack of a recursive one
+        Deque<JClass> stack = new ArrayDeque<>();
+        Deque<Integer> pres = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            JClass c = stack.peek();
+            Interval interval = intervals.get(c);
+            if (interval == null) {
+                // entering c
+                intervals.put(c, Interval.PENDING);
+                order[counter] = c;
+                pres.push(counter++);
+                for (JClass sub : hierarchy.getDirectSubclassesOf(c)) {
+                    if (!intervals.containsKey(sub)) {
+                        stack.push(sub);
+                    }
+                }
+            } else {
+                stack.pop();
+                if (interval == Interval.PENDING) {
+                    // leaving c, all its subclasses have been numbered
+                    intervals.put(c, new Interval(pres.pop(), counter - 1));
+                }
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * @return true if {@code sub} is a subtype of {@code sup}.
+     */
+    public boolean isSubtype(JClass sub, JClass sup) {
+        if (sub == sup) {
+            return true;
+        }
+        if (!sup.isInterface()) {
+            Interval subInterval = intervals.get(sub);
+            Interval supInterval = intervals.get(sup);
+            return subInterval != null && supInterval != null
+                    && supInterval.contains(subInterval);
+        }
+        return getInterfaceSubtypes(sup).contains(sub);
+    }
+
+    /**
+     * @return all (direct and indirect) subtypes of given class,
+     * including the class itself. The result is an unmodifiable
+     * collection without duplicates.
+     */
+    public Collection<JClass> getAllSubtypesOf(JClass jclass) {
+        if (jclass.isInterface()) {
+            return getInterfaceSubtypes(jclass);
+        }
+        Interval interval = intervals.get(jclass);
+        if (interval == null) {
+            return Set.of(jclass);
+        }
+        return Collections.unmodifiableList(Arrays.asList(order)
+                .subList(interval.pre(), interval.last() + 1));
+    }
+
+    private Set<JClass> getInterfaceSubtypes(JClass iface) {
+        Set<JClass> subtypes = interfaceSubtypes.get(iface);
+        if (subtypes == null) {
+            subtypes = Collections.unmodifiableSet(
+                    computeInterfaceSubtypes(iface));
+            Set<JClass> prev = interfaceSubtypes.putIfAbsent(iface, subtypes);
+            if (prev != null) {
+                subtypes = prev;
+            }
+        }
+        return subtypes;
+    }
+
+    private Set<JClass> computeInterfaceSubtypes(JClass iface) {
+        Set<JClass> result = newHybridSet();
+        Deque<JClass> workList = new ArrayDeque<>();
+        workList.push(iface);
+        while (!workList.isEmpty()) {
+            JClass i = workList.pop();
+            if (result.add(i)) {
+                for (JClass impl : hierarchy.getDirectImplementorsOf(i)) {
+                    // implementors are non-interface classes whose
+                    // subclasses are covered by their intervals
+                    result.addAll(getAllSubtypesOf(impl));
+                }
+                hierarchy.getDirectSubinterfacesOf(i).forEach(workList::push);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the target method based on given class and method
+     * subsignature, i.e., the first non-abstract method with the
+     * subsignature along the superclass chain of the class.
+     *
+     * @return the dispatched target method, or null if no satisfying
+     * method can be found.
+     */
+    public @Nullable JMethod dispatch(JClass jclass, Subsignature subsignature) {
+        ConcurrentMap<Subsignature, Optional<JMethod>> table =
+                dispatchTable.computeIfAbsent(jclass, c -> Maps.newConcurrentMap());
+        Optional<JMethod> target = table.get(subsignature);
+        if (target == null) {
+            JMethod method = jclass.getDeclaredMethod(subsignature);
+            if (method == null || method.isAbstract()) {
+                JClass superClass = jclass.getSuperClass();
+                // reuses (and fills) the entries of superclasses
+                method = superClass == null ? null :
+                        dispatch(superClass, subsignature);
+            }
+            target = Optional.ofNullable(method);
+            table.putIfAbsent(subsignature, target);
+        }
+        return target.orElse(null);
+    }
+
+    /**
+     * DFS interval of a class: its pre-order number and the largest
+     * pre-order number in its subtree.
+     */
+    private record Interval(int pre, int last) {
+
+        /**
+         * Placeholder for classes on the DFS stack.
+         */
+        private static final Interval PENDING = new Interval(-1, -1);
+
+        private boolean contains(Interval other) {
+            return pre <= other.pre && other.pre <= last;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.inter.IFDSSolver;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PossiblyUninitializedVariablesTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    private static MultiMap<Stmt, Var> solve(String main) {
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", main,
+                "-a", "cg=algorithm:cha", "-a", ICFGBuilder.ID});
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        MultiMap<Stmt, Var> result = new IFDSSolver<>(
+                new PossiblyUninitializedVariables(icfg), icfg).solve();
+        // Java requires local variables to be definitely assigned
+        // before they are read
+        result.forEach((stmt, var) -> Assert.assertFalse(
+                var + " is possibly uninitialized at " + stmt,
+                stmt.getUses().contains(var)));
+        return result;
+    }
+
+    private static Set<String> getVarNames(MultiMap<Stmt, Var> result,
+                                           JMethod method, int index) {
+        return result.get(method.getIR().getStmt(index))
+                .stream()
+                .map(Var::getName)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testExample() {
+        MultiMap<Stmt, Var> result = solve("Example");
+        JMethod main = World.get().getMainMethod();
+        // c = b - %intconst0;
+        Set<String> vars = getVarNames(result, main, 4);
+        Assert.assertTrue(vars.containsAll(Set.of("c", "temp$3")));
+        Assert.assertFalse(vars.contains("a"));
+        Assert.assertFalse(vars.contains("b"));
+        JMethod addOne = main.getDeclaringClass().getDeclaredMethod("addOne");
+        // %intconst0 = 1;
+        vars = getVarNames(result, addOne, 0);
+        Assert.assertTrue(vars.containsAll(Set.of("%intconst0", "y")));
+        Assert.assertFalse(vars.contains("x"));
+        // return y;
+        vars = getVarNames(result, addOne, 2);
+        Assert.assertFalse(vars.contains("y"));
+    }
+
+    @Test
+    public void testReference() {
+        solve("Reference");
+    }
+
+    @Test
+    public void testFibonacci() {
+        solve("Fibonacci");
+    }
+
+    @Test
+    public void testMultiIntArgs() {
+        solve("MultiIntArgs");
+    }
+}
@@ -57,4 +57,28 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testIntFact() {
+        Tests.test("Example", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;fact:int",
+                "-a", "cg=algorithm:cha");
+    }
+
+    @Test
+    public void testLazyICFG() {
+        // cache-size:1 makes lazy ICFG evict and rebuild method edges
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false",
+                "-a", "cg=algorithm:cha", "-a", "icfg=lazy:true;cache-size:1");
+    }
+
+    @Test
+    public void testSummary() {
+        // the recursive calls of getFibonacci() create contexts of
+        // constant arguments 5, 4, 3, ..., which are bounded by max-contexts
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;summary:true;max-contexts:4",
+                "-a", "cg=algorithm:cha");
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.inter.IDESolver;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class LinearCPTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    private static TwoKeyMap<Stmt, Var, Value> solve(String main) {
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", main,
+                "-a", "cg=algorithm:cha", "-a", ICFGBuilder.ID});
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        return new IDESolver<>(new LinearConstantPropagation(), icfg).solve();
+    }
+
+    /**
+     * @return the values of variables before the index-th statement
+     * of given method, in the format of the expected files of
+     * {@link InterCPTest}.
+     */
+    private static String getValues(TwoKeyMap<Stmt, Var, Value> result,
+                                    String method, int index) {
+        JMethod m = World.get().getMainMethod()
+                .getDeclaringClass()
+                .getDeclaredMethod(method);
+        Map<Var, Value> values = result.get(m.getIR().getStmt(index));
+        return values.entrySet()
+                .stream()
+                .filter(e -> e.getKey().getMethod() != null)
+                .map(e -> e.getKey().getName() + "=" + e.getValue())
+                .sorted()
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    @Test
+    public void testExample() {
+        TwoKeyMap<Stmt, Var, Value> result = solve("Example");
+        // c = a * b is not linear
+        Assert.assertEquals("{%intconst0=3, a=6, b=10, c=NAC, temp$1=7, temp$3=10}",
+                getValues(result, "main", 8));
+        Assert.assertEquals("{%intconst0=1, x=6, y=7}",
+                getValues(result, "addOne", 2));
+        Assert.assertEquals("{temp$0=10}",
+                getValues(result, "ten", 1));
+    }
+
+    @Test
+    public void testMultiIntArgs() {
+        TwoKeyMap<Stmt, Var, Value> result = solve("MultiIntArgs");
+        Assert.assertEquals("{a=2, b=3, c=NAC, r=4, s=5, t=NAC, temp$0=NAC, " +
+                        "temp$1=NAC, temp$2=NAC, x=2, y=3, z=NAC}",
+                getValues(result, "main", 12));
+        // x + y is not linear
+        Assert.assertEquals("{temp$1=NAC, x=2, y=3}",
+                getValues(result, "goo", 1));
+        // foo() is called with (2, 3) and (4, 5)
+        Assert.assertEquals("{temp$0=NAC, x=NAC, y=NAC}",
+                getValues(result, "foo", 1));
+    }
+}
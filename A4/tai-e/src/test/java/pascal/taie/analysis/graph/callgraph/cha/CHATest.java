@@ -22,9 +22,19 @@
 
 package pascal.taie.analysis.graph.callgraph.cha;
 
+import org.junit.Assert;
 import org.junit.Test;
 import pascal.taie.analysis.Tests;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
 public class CHATest {
     
     protected static void test(String main) {
@@ -50,4 +60,46 @@ public class CHATest {
     public void testAbstractMethod() {
         test("AbstractMethod");
     }
+
+    @Test
+    public void testParallel() {
+        Tests.test("Interface", "src/test/resources/cha/", "cg",
+                "algorithm:cha;parallel:4");
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path dir = Files.createTempDirectory("cg-cache");
+        try {
+            String options = "algorithm:cha;cache:" + dir;
+            // the first run builds the call graph and stores it
+            Tests.test("VirtualCall", "src/test/resources/cha/", "cg", options);
+            Path file = getCacheFile(dir);
+            BasicFileAttributes stored = Files.readAttributes(
+                    file, BasicFileAttributes.class);
+            // the second run loads the call graph, which does not
+            // store the cache file again
+            Tests.test("VirtualCall", "src/test/resources/cha/", "cg", options);
+            BasicFileAttributes loaded = Files.readAttributes(
+                    getCacheFile(dir), BasicFileAttributes.class);
+            Assert.assertEquals(stored.fileKey(), loaded.fileKey());
+            Assert.assertEquals(stored.lastModifiedTime(), loaded.lastModifiedTime());
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder())
+                        .map(Path::toFile)
+                        .forEach(File::delete);
+            }
+        }
+    }
+
+    private static Path getCacheFile(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            List<Path> files = paths
+                    .filter(p -> p.toString().endsWith(".cg"))
+                    .toList();
+            Assert.assertEquals(1, files.size());
+            return files.get(0);
+        }
+    }
 }
@@ -30,13 +30,17 @@ import java.util.Set;
 
 /**
  * Default implementation of call graph.
+ * <p>
+ * The methods that modify this call graph are synchronized, so that
+ * the reachable methods and call edges can be added by the worker
+ * threads of parallel pointer analysis.
  */
 public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
 
     /**
      * Adds an entry method to this call graph.
      */
-    public void addEntryMethod(JMethod entryMethod) {
+    public synchronized void addEntryMethod(JMethod entryMethod) {
         entryMethods.add(entryMethod);
     }
 
@@ -46,7 +50,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
      * @return true if this call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addReachableMethod(JMethod method) {
+    public synchronized boolean addReachableMethod(JMethod method) {
         if (reachableMethods.add(method)) {
             if (!method.isAbstract()) {
                 method.getIR().forEach(stmt -> {
@@ -68,7 +72,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
      * @return true if the call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addEdge(Edge<Invoke, JMethod> edge) {
+    public synchronized boolean addEdge(Edge<Invoke, JMethod> edge) {
         if (callSiteToEdges.put(edge.getCallSite(), edge)) {
             calleeToEdges.put(edge.getCallee(), edge);
             return true;
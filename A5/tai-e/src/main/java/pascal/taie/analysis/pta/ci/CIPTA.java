@@ -27,6 +27,7 @@ import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
 
 /**
  * Context-insensitive pointer analysis.
@@ -41,11 +42,22 @@ public class CIPTA extends ProgramAnalysis {
 
     @Override
     public PointerAnalysisResult analyze() {
-        HeapModel heapModel = new AllocationSiteBasedModel(getOptions());
-        Solver solver = new Solver(heapModel);
+        AnalysisOptions options = getOptions();
+        HeapModel heapModel = new AllocationSiteBasedModel(options);
+        int parallelism;
+        if (options.get("parallel") == null) {
+            parallelism = 1;
+        } else {
+            // 0 means all available processors, as in call graph building
+            int n = options.getInt("parallel");
+            parallelism = n > 0 ? n : Runtime.getRuntime().availableProcessors();
+        }
+        Solver solver = new Solver(heapModel,
+                options.getBooleanOrDefault("var-substitution", false),
+                parallelism);
         solver.solve();
         CIPTAResult result = solver.getResult();
-        new ResultProcessor(getOptions()).process(result);
+        new ResultProcessor(options).process(result);
         return result;
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.ci;
+
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set that can be read and updated by multiple threads.
+ * <p>
+ * Each set is guarded by its own lock. The objects are read from
+ * a snapshot taken under the lock, thus the iteration is not affected
+ * by the objects added concurrently. The lock of given set is never held
+ * together with the lock of another set, so that the union of two sets
+ * cannot deadlock.
+ */
+class ConcurrentPointsToSet extends PointsToSet {
+
+    ConcurrentPointsToSet(ObjIndexer indexer) {
+        super(indexer);
+    }
+
+    @Override
+    synchronized boolean addObject(Obj obj) {
+        return super.addObject(obj);
+    }
+
+    @Override
+    PointsToSet addAllDiff(PointsToSet pointsToSet) {
+        PointsToSet objs = new PointsToSet(indexer, pointsToSet.bits());
+        synchronized (this) {
+            return super.addAllDiff(objs);
+        }
+    }
+
+    @Override
+    void addAll(PointsToSet pointsToSet) {
+        PointsToSet objs = new PointsToSet(indexer, pointsToSet.bits());
+        synchronized (this) {
+            super.addAll(objs);
+        }
+    }
+
+    @Override
+    PointsToSet diff(PointsToSet pointsToSet) {
+        PointsToSet objs = new PointsToSet(indexer, pointsToSet.bits());
+        synchronized (this) {
+            return super.diff(objs);
+        }
+    }
+
+    @Override
+    synchronized boolean contains(Obj obj) {
+        return super.contains(obj);
+    }
+
+    @Override
+    synchronized boolean isEmpty() {
+        return super.isEmpty();
+    }
+
+    @Override
+    synchronized int size() {
+        return super.size();
+    }
+
+    @Override
+    Stream<Obj> objects() {
+        return snapshot().objects();
+    }
+
+    @Override
+    Set<Obj> getObjects() {
+        return snapshot().getObjects();
+    }
+
+    @Override
+    public Iterator<Obj> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    synchronized SparseBitSet bits() {
+        SparseBitSet copy = new SparseBitSet();
+        copy.addAll(super.bits());
+        return copy;
+    }
+
+    private PointsToSet snapshot() {
+        return new PointsToSet(indexer, bits());
+    }
+}
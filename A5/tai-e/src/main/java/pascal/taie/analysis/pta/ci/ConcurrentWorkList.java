@@ -0,0 +1,192 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.ci;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Work list shared by the worker threads of parallel pointer analysis.
+ * <p>
+ * The entries of the same pointer are coalesced as in {@link WorkList}.
+ * A worker is busy from the time it retrieves an entry until it asks
+ * this work list for the next one, as it may add more entries meanwhile.
+ * Thus, when no entry is left but some worker is still busy,
+ * {@link #isEmpty()} and {@link #pollEntry()} wait for new entries
+ * instead of reporting this work list as empty. The work list is empty
+ * only when no entry is left and no worker is busy, i.e., the analysis
+ * reaches its fixed point.
+ * <p>
+ * When {@link #isEmpty()} returns false, the entry it has seen is
+ * reserved for the calling thread and returned by the following
+ * {@link #pollEntry()}, so that the entry cannot be taken by another
+ * thread in between.
+ */
+class ConcurrentWorkList extends WorkList {
+
+    private final Queue<Pointer> pointers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Pending objects of the queued pointers.
+     */
+    private final ConcurrentMap<Pointer, PointsToSet> pending = Maps.newConcurrentMap();
+
+    /**
+     * The entry reserved for each thread by {@link #isEmpty()}.
+     */
+    private final ThreadLocal<Entry> reserved = new ThreadLocal<>();
+
+    /**
+     * Whether each thread is processing an entry.
+     */
+    private final ThreadLocal<Boolean> busy = ThreadLocal.withInitial(() -> false);
+
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+
+    private final AtomicInteger waitingWorkers = new AtomicInteger();
+
+    private volatile boolean aborted = false;
+
+    @Override
+    void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+        PointsToSet objs = pointer.getPointsToSet().diff(pointsToSet);
+        if (objs.isEmpty()) {
+            return;
+        }
+        // the pending set is only modified under the lock of the map,
+        // thus it is not modified after being removed by pollEntry()
+        pending.compute(pointer, (p, diff) -> {
+            if (diff == null) {
+                pointers.add(p);
+                return objs;
+            }
+            diff.addAll(objs);
+            return diff;
+        });
+        if (waitingWorkers.get() > 0) {
+            wakeUpWorkers();
+        }
+    }
+
+    @Override
+    Entry pollEntry() {
+        Entry entry = reserved.get();
+        if (entry != null) {
+            reserved.remove();
+            return entry;
+        }
+        return takeEntry();
+    }
+
+    @Override
+    boolean isEmpty() {
+        if (reserved.get() != null) {
+            return false;
+        }
+        Entry entry = takeEntry();
+        reserved.set(entry);
+        return entry == null;
+    }
+
+    /**
+     * Not supported, as cycles are not collapsed in parallel analysis.
+     */
+    @Override
+    void redirectEntries(UnaryOperator<Pointer> redirect) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stops all workers, e.g., when one of them fails. After the call,
+     * this work list is reported as empty to every worker.
+     */
+    void abort() {
+        aborted = true;
+        wakeUpWorkers();
+    }
+
+    /**
+     * Finishes the entry being processed by the current thread, and takes
+     * the next entry, waiting for it if some worker is still busy.
+     *
+     * @return the next entry, or null if the analysis has finished.
+     */
+    private Entry takeEntry() {
+        if (busy.get()) {
+            busy.set(false);
+            finishEntry();
+        }
+        while (!aborted) {
+            // counts this worker as busy before polling, so that each
+            // entry is always either in the queue or held by a busy worker
+            busyWorkers.incrementAndGet();
+            Pointer pointer = pointers.poll();
+            if (pointer != null) {
+                busy.set(true);
+                return new Entry(pointer, pending.remove(pointer));
+            }
+            finishEntry();
+            if (!awaitEntry()) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void finishEntry() {
+        if (busyWorkers.decrementAndGet() == 0
+                && waitingWorkers.get() > 0) {
+            wakeUpWorkers();
+        }
+    }
+
+    /**
+     * Waits until some entry is available or no worker is busy.
+     *
+     * @return true if some entry may be available, otherwise false.
+     */
+    private synchronized boolean awaitEntry() {
+        waitingWorkers.incrementAndGet();
+        try {
+            while (pointers.isEmpty() && busyWorkers.get() > 0 && !aborted) {
+                wait();
+            }
+            return !pointers.isEmpty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waitingWorkers.decrementAndGet();
+        }
+    }
+
+    private synchronized void wakeUpWorkers() {
+        notifyAll();
+    }
+}
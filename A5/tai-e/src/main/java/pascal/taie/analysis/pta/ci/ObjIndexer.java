@@ -0,0 +1,88 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.ci;
+
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Numbers the abstract objects in the points-to sets of a
+ * {@link PointerFlowGraph}. The objects are created by heap model,
+ * thus each object is assigned the next index when it is first added to
+ * a points-to set, and the objects of an analysis are numbered
+ * consecutively from 0, independent of other analyses.
+ * This class is thread-safe.
+ */
+class ObjIndexer implements Indexer<Obj> {
+
+    private final Map<Obj, Integer> indexes = Maps.newConcurrentMap();
+
+    private volatile Obj[] objs = new Obj[1024];
+
+    private int counter = 0;
+
+    /**
+     * @return the index of given object. If the object has not been
+     * indexed, then it is assigned the next index.
+     */
+    @Override
+    public int getIndex(Obj o) {
+        Integer index = indexes.get(o);
+        return index != null ? index : addObject(o);
+    }
+
+    /**
+     * @return the index of given object, or -1 if the object has not
+     * been indexed. Unlike {@link #getIndex(Obj)}, this method never
+     * assigns an index.
+     */
+    int findIndex(Obj o) {
+        Integer index = indexes.get(o);
+        return index != null ? index : -1;
+    }
+
+    private synchronized int addObject(Obj o) {
+        Integer index = indexes.get(o);
+        if (index == null) {
+            index = counter++;
+            Obj[] array = objs;
+            if (index == array.length) {
+                array = Arrays.copyOf(array, array.length * 2);
+            }
+            array[index] = o;
+            // publishes the object before its index
+            objs = array;
+            indexes.put(o, index);
+        }
+        return index;
+    }
+
+    @Override
+    public Obj getObject(int index) {
+        return objs[index];
+    }
+}
@@ -29,9 +29,22 @@ package pascal.taie.analysis.pta.ci;
  */
 abstract class Pointer {
 
-    private final PointsToSet pointsToSet = new PointsToSet();
+    /**
+     * The points-to set of this pointer, which is set by
+     * {@link PointerFlowGraph} when the pointer is added to it.
+     */
+    private PointsToSet pointsToSet;
 
     PointsToSet getPointsToSet() {
         return pointsToSet;
     }
+
+    /**
+     * Replaces the points-to set of this pointer. This is used by
+     * {@link PointerFlowGraph} to let the pointers of a collapsed cycle
+     * share the points-to set of their representative.
+     */
+    void setPointsToSet(PointsToSet pointsToSet) {
+        this.pointsToSet = pointsToSet;
+    }
 }
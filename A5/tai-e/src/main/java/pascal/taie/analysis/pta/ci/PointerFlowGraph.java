@@ -25,49 +25,135 @@ package pascal.taie.analysis.pta.ci;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JField;
+import pascal.taie.util.collection.MapSetMultiMap;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
-import pascal.taie.util.collection.TwoKeyMap;
+import pascal.taie.util.graph.SCC;
+import pascal.taie.util.graph.SimpleGraph;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in pointer analysis.
+ * <p>
+ * Cycles in this PFG are detected online: whenever the number of edges
+ * doubles, the strongly connected components of the graph are computed,
+ * and the pointers of each cycle are collapsed into a representative.
+ * The collapsed pointers share the points-to set of the representative,
+ * and their incoming and outgoing edges as well as their pending work-list
+ * entries are redirected to it, so that the objects flowing around
+ * the cycle are propagated only once.
+ * <p>
+ * Only the pointers that have no statement to be processed on new objects
+ * (i.e., variables that are not the base of any field access, array access
+ * or invocation) are collapsed, as the solver handles such statements per
+ * pointer.
+ * <p>
+ * If {@link VariableSubstitution} is given, the variables it finds to be
+ * pointer-equivalent are merged in the same way when their nodes are
+ * created.
+ * <p>
+ * A concurrent PFG can be updated by the worker threads of parallel
+ * pointer analysis. Its pointers have {@link ConcurrentPointsToSet}s,
+ * and cycles are not collapsed in it, as the collapsing rewires the graph
+ * while other workers are traversing it.
  */
 class PointerFlowGraph {
 
+    /**
+     * Number of edges at which the first cycle detection is performed.
+     */
+    private static final int INITIAL_DETECTION_THRESHOLD = 128;
+
     /**
      * Set of all pointer in this PFG.
      */
-    private final Set<Pointer> pointers = Sets.newSet();
+    private final Set<Pointer> pointers;
 
     /**
      * Map from Variable to Var node.
      */
-    private final Map<Var, VarPtr> varPtrs = Maps.newMap();
+    private final Map<Var, VarPtr> varPtrs;
 
     /**
      * Map from JField to StaticField node.
      */
-    private final Map<JField, StaticField> staticFields = Maps.newMap();
+    private final Map<JField, StaticField> staticFields;
 
     /**
      * Map from (Obj, Field) to InstanceField node.
      */
-    private final TwoKeyMap<Obj, JField, InstanceField> instanceFields = Maps.newTwoKeyMap();
+    private final Map<Obj, Map<JField, InstanceField>> instanceFields;
 
     /**
      * Map from Obj (array) to ArrayIndex node.
      */
-    private final Map<Obj, ArrayIndex> arrayIndexes = Maps.newMap();
+    private final Map<Obj, ArrayIndex> arrayIndexes;
 
     /**
      * Map from a pointer (node) to its successors in PFG.
      */
-    private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
+    private final MultiMap<Pointer, Pointer> successors;
+
+    /**
+     * Map from a collapsed pointer to the pointer it was merged into.
+     */
+    private final Map<Pointer, Pointer> representatives = Maps.newMap();
+
+    /**
+     * Map from a representative to the pointers collapsed into it.
+     */
+    private final MultiMap<Pointer, Pointer> collapsed = Maps.newMultiMap();
+
+    /**
+     * Work list to which the objects of collapsed pointers are re-added.
+     */
+    private final WorkList workList;
+
+    /**
+     * Numbers the abstract objects in the points-to sets of this PFG.
+     */
+    private final ObjIndexer objIndexer = new ObjIndexer();
+
+    /**
+     * Offline variable substitution, or null if it is disabled.
+     */
+    private final @Nullable VariableSubstitution substitution;
+
+    private final boolean concurrent;
+
+    private int edgeCount = 0;
+
+    private int detectionThreshold = INITIAL_DETECTION_THRESHOLD;
+
+    PointerFlowGraph(WorkList workList,
+                     @Nullable VariableSubstitution substitution,
+                     boolean concurrent) {
+        this.workList = workList;
+        this.substitution = substitution;
+        this.concurrent = concurrent;
+        if (concurrent) {
+            pointers = Sets.newConcurrentSet();
+            varPtrs = Maps.newConcurrentMap();
+            staticFields = Maps.newConcurrentMap();
+            instanceFields = Maps.newConcurrentMap();
+            arrayIndexes = Maps.newConcurrentMap();
+            successors = new MapSetMultiMap<>(
+                    Maps.newConcurrentMap(), Sets::newConcurrentSet);
+        } else {
+            pointers = Sets.newSet();
+            varPtrs = Maps.newMap();
+            staticFields = Maps.newMap();
+            instanceFields = Maps.newMap();
+            arrayIndexes = Maps.newMap();
+            successors = Maps.newMultiMap();
+        }
+    }
 
     /**
      * Returns all pointers in this PFG.
@@ -80,22 +166,30 @@ class PointerFlowGraph {
      * @return the corresponding Var node for the given variable.
      */
     VarPtr getVarPtr(Var var) {
-        return varPtrs.computeIfAbsent(var, v -> {
-            VarPtr varPtr = new VarPtr(v);
-            pointers.add(varPtr);
-            return varPtr;
-        });
+        if (substitution == null) {
+            return varPtrs.computeIfAbsent(var, v -> addPointer(new VarPtr(v)));
+        }
+        VarPtr varPtr = varPtrs.get(var);
+        if (varPtr == null) {
+            varPtr = addPointer(new VarPtr(var));
+            varPtrs.put(var, varPtr);
+            Var rep = substitution.getRepresentative(var);
+            if (rep != var) {
+                Pointer root = getRepresentative(getVarPtr(rep));
+                representatives.put(varPtr, root);
+                collapsed.put(root, varPtr);
+                varPtr.setPointsToSet(root.getPointsToSet());
+            }
+        }
+        return varPtr;
     }
 
     /**
      * @return the corresponding StaticField node for the given static field.
      */
     StaticField getStaticField(JField field) {
-        return staticFields.computeIfAbsent(field, f -> {
-            StaticField staticField = new StaticField(f);
-            pointers.add(staticField);
-            return staticField;
-        });
+        return staticFields.computeIfAbsent(field,
+                f -> addPointer(new StaticField(f)));
     }
 
     /**
@@ -103,22 +197,36 @@ class PointerFlowGraph {
      * and instance field.
      */
     InstanceField getInstanceField(Obj base, JField field) {
-        return instanceFields.computeIfAbsent(base, field, (b, f) -> {
-                InstanceField instanceField = new InstanceField(b, f);
-                pointers.add(instanceField);
-                return instanceField;
-            });
+        return instanceFields.computeIfAbsent(base,
+                        b -> concurrent ? Maps.newConcurrentMap() : Maps.newHybridMap())
+                .computeIfAbsent(field, f -> addPointer(new InstanceField(base, f)));
     }
 
     /**
      * @return the corresponding ArrayIndex node for the given array object.
      */
     ArrayIndex getArrayIndex(Obj array) {
-        return arrayIndexes.computeIfAbsent(array, a -> {
-            ArrayIndex arrayIndex = new ArrayIndex(a);
-            pointers.add(arrayIndex);
-            return arrayIndex;
-        });
+        return arrayIndexes.computeIfAbsent(array,
+                a -> addPointer(new ArrayIndex(a)));
+    }
+
+    /**
+     * Adds a new pointer to this PFG.
+     */
+    private <P extends Pointer> P addPointer(P pointer) {
+        pointer.setPointsToSet(concurrent ?
+                new ConcurrentPointsToSet(objIndexer) :
+                new PointsToSet(objIndexer));
+        pointers.add(pointer);
+        return pointer;
+    }
+
+    /**
+     * @return a new points-to set containing the given object, which can
+     * be propagated to the pointers of this PFG.
+     */
+    PointsToSet makePointsToSet(Obj obj) {
+        return new PointsToSet(objIndexer, obj);
     }
 
     /**
@@ -128,13 +236,136 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        Pointer s = getRepresentative(source);
+        Pointer t = getRepresentative(target);
+        if (s == t || !successors.put(s, t)) {
+            return false;
+        }
+        if (!concurrent && ++edgeCount >= detectionThreshold) {
+            collapseCycles();
+            detectionThreshold = edgeCount * 2;
+        }
+        return true;
     }
 
     /**
      * @return successors of given pointer in the PFG.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRepresentative(pointer));
+    }
+
+    /**
+     * @return the representative of the cycle the given pointer was
+     * collapsed into, or the pointer itself if it was not collapsed.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        Pointer rep = representatives.get(pointer);
+        if (rep == null) {
+            return pointer;
+        }
+        Pointer root = getRepresentative(rep);
+        if (root != rep) {
+            representatives.put(pointer, root);
+        }
+        return root;
+    }
+
+    /**
+     * Computes the cycles of this PFG and collapses the pointers in them.
+     */
+    private void collapseCycles() {
+        SimpleGraph<Pointer> graph = new SimpleGraph<>();
+        successors.forEach((s, t) -> graph.addEdge(s, getRepresentative(t)));
+        boolean collapsedAny = false;
+        for (List<Pointer> component : new SCC<>(graph).getTrueComponents()) {
+            List<Pointer> group = component.stream()
+                    .filter(PointerFlowGraph::isCollapsible)
+                    .toList();
+            if (group.size() > 1) {
+                collapse(group);
+                collapsedAny = true;
+            }
+        }
+        if (collapsedAny) {
+            redirectInEdges();
+            // objects pending for the collapsed pointers are
+            // propagated from their representatives
+            workList.redirectEntries(this::getRepresentative);
+            edgeCount = successors.size();
+        }
+    }
+
+    /**
+     * Collapses the given pointers into the first of them.
+     */
+    private void collapse(List<Pointer> group) {
+        Pointer rep = group.get(0);
+        PointsToSet pts = rep.getPointsToSet();
+        List<Pointer> members = group.subList(1, group.size());
+        members.forEach(member -> representatives.put(member, rep));
+        Set<Pointer> succs = Sets.newSet();
+        for (Pointer member : members) {
+            // objects of the member which have not reached the
+            // representative are propagated to all successors
+            workList.addEntry(rep, member.getPointsToSet());
+            member.setPointsToSet(pts);
+            collapsed.put(rep, member);
+            for (Pointer p : collapsed.get(member)) {
+                p.setPointsToSet(pts);
+                collapsed.put(rep, p);
+            }
+            collapsed.removeAll(member);
+            successors.get(member).forEach(succ ->
+                    succs.add(getRepresentative(succ)));
+            successors.removeAll(member);
+        }
+        succs.remove(rep);
+        for (Pointer succ : succs) {
+            // objects of the representative have not reached
+            // the successors of the members
+            if (successors.put(rep, succ) && !pts.isEmpty()) {
+                workList.addEntry(succ, pts);
+            }
+        }
+    }
+
+    /**
+     * Redirects the edges to collapsed pointers to their representatives.
+     * The objects that have flowed along such edges are already in the
+     * points-to sets or work-list entries of the collapsed pointers,
+     * which are taken over by the representatives.
+     */
+    private void redirectInEdges() {
+        MultiMap<Pointer, Pointer> redirected = Maps.newMultiMap();
+        successors.forEach((source, target) -> {
+            if (representatives.containsKey(target)) {
+                redirected.put(source, target);
+            }
+        });
+        redirected.forEach((source, target) -> {
+            successors.remove(source, target);
+            Pointer rep = getRepresentative(target);
+            if (rep != source) {
+                successors.put(source, rep);
+            }
+        });
+    }
+
+    private static boolean isCollapsible(Pointer pointer) {
+        return !(pointer instanceof VarPtr varPtr)
+                || isCollapsible(varPtr.getVar());
+    }
+
+    /**
+     * @return true if the given variable is not the base of any field
+     * access, array access or invocation, otherwise false.
+     */
+    static boolean isCollapsible(Var var) {
+        return var.getLoadFields().isEmpty() &&
+                var.getStoreFields().isEmpty() &&
+                var.getLoadArrays().isEmpty() &&
+                var.getStoreArrays().isEmpty() &&
+                var.getInvokes().isEmpty();
     }
 }
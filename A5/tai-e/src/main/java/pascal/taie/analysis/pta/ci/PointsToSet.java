@@ -23,33 +23,55 @@
 package pascal.taie.analysis.pta.ci;
 
 import pascal.taie.analysis.pta.core.heap.Obj;
-import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.SparseBitSet;
 
-import java.util.Collections;
+import java.util.AbstractSet;
 import java.util.Iterator;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents of points-to sets.
+ * <p>
+ * The objects are kept as their indexes in a {@link SparseBitSet},
+ * and are iterated in order of their indexes. The indexes are assigned
+ * by the {@link ObjIndexer} of the analysis, thus only the sets created
+ * with the same indexer can be combined.
  */
 class PointsToSet implements Iterable<Obj> {
 
-    private final Set<Obj> set = Sets.newHybridSet();
+    /**
+     * Numbers the abstract objects. The objects are created by heap model,
+     * thus they are numbered when they are first added to points-to sets.
+     */
+    final ObjIndexer indexer;
+
+    private final SparseBitSet set;
 
     /**
      * Constructs an empty points-to set.
      */
-    PointsToSet() {
+    PointsToSet(ObjIndexer indexer) {
+        this(indexer, new SparseBitSet());
     }
 
     /**
      * Constructs a points-to set containing one object.
      */
-    PointsToSet(Obj obj) {
+    PointsToSet(ObjIndexer indexer, Obj obj) {
+        this(indexer);
         addObject(obj);
     }
 
+    PointsToSet(ObjIndexer indexer, SparseBitSet set) {
+        this.indexer = indexer;
+        this.set = set;
+    }
+
     /**
      * Adds an object to this set.
      *
@@ -57,14 +79,47 @@ class PointsToSet implements Iterable<Obj> {
      * otherwise false.
      */
     boolean addObject(Obj obj) {
-        return set.add(obj);
+        return set.add(indexer.getIndex(obj));
+    }
+
+    /**
+     * Adds all objects in given set to this set.
+     *
+     * @return the objects that were not in this set before the call,
+     * i.e., the difference of given set and this set.
+     */
+    PointsToSet addAllDiff(PointsToSet pointsToSet) {
+        return new PointsToSet(indexer, set.addAllDiff(pointsToSet.bits()));
+    }
+
+    /**
+     * Adds all objects in given set to this set.
+     */
+    void addAll(PointsToSet pointsToSet) {
+        set.addAll(pointsToSet.bits());
+    }
+
+    /**
+     * @return the objects in given set that are not in this set.
+     * This set is not modified.
+     */
+    PointsToSet diff(PointsToSet pointsToSet) {
+        SparseBitSet diff = new SparseBitSet();
+        pointsToSet.bits().forEach(i -> {
+            if (!set.contains(i)) {
+                diff.add(i);
+            }
+        });
+        return new PointsToSet(indexer, diff);
     }
 
     /**
      * @return true if this points-to set contains the given object, otherwise false.
      */
     boolean contains(Obj obj) {
-        return set.contains(obj);
+        // objects that have not been indexed are in no points-to set
+        int index = indexer.findIndex(obj);
+        return index != -1 && set.contains(index);
     }
 
     /**
@@ -85,23 +140,60 @@ class PointsToSet implements Iterable<Obj> {
      * @return all objects in this set.
      */
     Stream<Obj> objects() {
-        return set.stream();
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), set.size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
     }
 
     /**
      * @return all objects in this set.
      */
     Set<Obj> getObjects() {
-        return Collections.unmodifiableSet(set);
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Obj obj && PointsToSet.this.contains(obj);
+            }
+
+            @Override
+            public Iterator<Obj> iterator() {
+                return PointsToSet.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return set.size();
+            }
+        };
     }
 
     @Override
     public Iterator<Obj> iterator() {
-        return set.iterator();
+        PrimitiveIterator.OfInt it = set.iterator();
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Obj next() {
+                return indexer.getObject(it.nextInt());
+            }
+        };
+    }
+
+    /**
+     * @return the bit set of the objects in this set, which is not modified
+     * while the caller reads it.
+     */
+    SparseBitSet bits() {
+        return set;
     }
 
     @Override
     public String toString() {
-        return set.toString();
+        return getObjects().toString();
     }
 }
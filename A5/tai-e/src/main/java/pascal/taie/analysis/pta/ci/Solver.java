@@ -31,6 +31,8 @@ import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.heap.SynchronizedHeapModel;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.proginfo.MethodRef;
@@ -43,11 +45,17 @@ import pascal.taie.ir.stmt.StmtVisitor;
 import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.language.type.Type;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 class Solver {
 
@@ -55,6 +63,14 @@ class Solver {
 
     private final HeapModel heapModel;
 
+    private final boolean varSubstitution;
+
+    /**
+     * Number of worker threads. The work list is processed in parallel
+     * if it is greater than 1.
+     */
+    private final int parallelism;
+
     private DefaultCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
@@ -65,8 +81,16 @@ class Solver {
 
     private ClassHierarchy hierarchy;
 
-    Solver(HeapModel heapModel) {
-        this.heapModel = heapModel;
+    Solver(HeapModel heapModel, boolean varSubstitution, int parallelism) {
+        this.parallelism = parallelism;
+        this.heapModel = parallelism > 1 ?
+                new SynchronizedHeapModel(heapModel) : heapModel;
+        if (varSubstitution && parallelism > 1) {
+            logger.warn("Variable substitution is not supported" +
+                    " by parallel analysis, ignored");
+            varSubstitution = false;
+        }
+        this.varSubstitution = varSubstitution;
     }
 
     /**
@@ -74,15 +98,21 @@ class Solver {
      */
     void solve() {
         initialize();
-        analyze();
+        if (parallelism > 1) {
+            analyzeInParallel();
+        } else {
+            analyze();
+        }
     }
 
     /**
      * Initializes pointer analysis.
      */
     private void initialize() {
-        workList = new WorkList();
-        pointerFlowGraph = new PointerFlowGraph();
+        boolean parallel = parallelism > 1;
+        workList = parallel ? new ConcurrentWorkList() : new WorkList();
+        pointerFlowGraph = new PointerFlowGraph(workList,
+                varSubstitution ? new VariableSubstitution() : null, parallel);
         callGraph = new DefaultCallGraph();
         stmtProcessor = new StmtProcessor();
         hierarchy = World.get().getClassHierarchy();
@@ -96,29 +126,156 @@ class Solver {
      * Processes new reachable method.
      */
     private void addReachable(JMethod method) {
-        // TODO - finish me
+        if (callGraph.addReachableMethod(method)) {
+            method.getIR().forEach(stmt -> stmt.accept(stmtProcessor));
+        }
     }
 
     /**
      * Processes statements in new reachable methods.
      */
     private class StmtProcessor implements StmtVisitor<Void> {
-        // TODO - if you choose to implement addReachable()
-        //  via visitor pattern, then finish me
+
+        @Override
+        public Void visit(New stmt) {
+            Obj obj = heapModel.getObj(stmt);
+            workList.addEntry(pointerFlowGraph.getVarPtr(stmt.getLValue()),
+                    pointerFlowGraph.makePointsToSet(obj));
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            addPFGEdge(pointerFlowGraph.getVarPtr(stmt.getRValue()),
+                    pointerFlowGraph.getVarPtr(stmt.getLValue()));
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(pointerFlowGraph.getStaticField(field),
+                        pointerFlowGraph.getVarPtr(stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(pointerFlowGraph.getVarPtr(stmt.getRValue()),
+                        pointerFlowGraph.getStaticField(field));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Invoke stmt) {
+            if (stmt.isStatic()) {
+                JMethod callee = resolveCallee(null, stmt);
+                if (callee != null) {
+                    processCallEdge(stmt, callee);
+                }
+            }
+            return null;
+        }
     }
 
     /**
      * Adds an edge "source -> target" to the PFG.
      */
     private void addPFGEdge(Pointer source, Pointer target) {
-        // TODO - finish me
+        if (pointerFlowGraph.addEdge(source, target)) {
+            PointsToSet pts = source.getPointsToSet();
+            if (!pts.isEmpty()) {
+                workList.addEntry(target, pts);
+            }
+        }
     }
 
     /**
      * Processes work-list entries until the work-list is empty.
+     * Each entry holds the objects that were added to the pointer
+     * since it was queued, and only the objects that are new to
+     * the points-to set of the pointer are processed.
      */
     private void analyze() {
-        // TODO - finish me
+        while (!workList.isEmpty()) {
+            WorkList.Entry entry = workList.pollEntry();
+            Pointer pointer = entry.pointer();
+            PointsToSet delta = propagate(pointer, entry.pointsToSet());
+            if (pointer instanceof VarPtr varPtr && !delta.isEmpty()) {
+                Var var = varPtr.getVar();
+                for (Obj obj : delta) {
+                    processInstanceFieldsAndArrays(var, obj);
+                    processCall(var, obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the instance field and array accesses on given variable
+     * when it points to a new object.
+     */
+    private void processInstanceFieldsAndArrays(Var var, Obj obj) {
+        for (StoreField store : var.getStoreFields()) {
+            JField field = store.getFieldRef().resolve();
+            addPFGEdge(pointerFlowGraph.getVarPtr(store.getRValue()),
+                    pointerFlowGraph.getInstanceField(obj, field));
+        }
+        for (LoadField load : var.getLoadFields()) {
+            JField field = load.getFieldRef().resolve();
+            addPFGEdge(pointerFlowGraph.getInstanceField(obj, field),
+                    pointerFlowGraph.getVarPtr(load.getLValue()));
+        }
+        for (StoreArray store : var.getStoreArrays()) {
+            addPFGEdge(pointerFlowGraph.getVarPtr(store.getRValue()),
+                    pointerFlowGraph.getArrayIndex(obj));
+        }
+        for (LoadArray load : var.getLoadArrays()) {
+            addPFGEdge(pointerFlowGraph.getArrayIndex(obj),
+                    pointerFlowGraph.getVarPtr(load.getLValue()));
+        }
+    }
+
+    /**
+     * Processes work-list entries by multiple worker threads, each of which
+     * runs {@link #analyze()} on the shared work list until the work list
+     * is empty, i.e., until no entry is left and no worker is busy.
+     */
+    private void analyzeInParallel() {
+        logger.info("Analyzing with {} threads", parallelism);
+        ConcurrentWorkList concurrentWorkList = (ConcurrentWorkList) workList;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> workers = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; ++i) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        analyze();
+                    } catch (RuntimeException | Error e) {
+                        // stops other workers waiting for new entries
+                        concurrentWorkList.abort();
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Worker of pointer analysis failed",
+                    e.getCause());
+        } catch (InterruptedException e) {
+            concurrentWorkList.abort();
+            Thread.currentThread().interrupt();
+            throw new AnalysisException(e);
+        } finally {
+            executor.shutdown();
+        }
     }
 
     /**
@@ -126,8 +283,12 @@ class Solver {
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
-        // TODO - finish me
-        return null;
+        PointsToSet delta = pointer.getPointsToSet().addAllDiff(pointsToSet);
+        if (!delta.isEmpty()) {
+            pointerFlowGraph.getSuccsOf(pointer).forEach(succ ->
+                    workList.addEntry(succ, delta));
+        }
+        return delta;
     }
 
     /**
@@ -137,7 +298,44 @@ class Solver {
      * @param recv a new discovered object pointed by the variable.
      */
     private void processCall(Var var, Obj recv) {
-        // TODO - finish me
+        for (Invoke callSite : var.getInvokes()) {
+            JMethod callee = resolveCallee(recv, callSite);
+            if (callee == null) {
+                continue;
+            }
+            Var thisVar = callee.getIR().getThis();
+            if (thisVar != null) {
+                workList.addEntry(pointerFlowGraph.getVarPtr(thisVar),
+                        pointerFlowGraph.makePointsToSet(recv));
+            }
+            processCallEdge(callSite, callee);
+        }
+    }
+
+    /**
+     * Adds the call edge from callSite to callee, and if it is new,
+     * makes the callee reachable and connects the arguments and return
+     * values of the call.
+     */
+    private void processCallEdge(Invoke callSite, JMethod callee) {
+        if (!callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            return;
+        }
+        addReachable(callee);
+        IR ir = callee.getIR();
+        List<Var> args = callSite.getInvokeExp().getArgs();
+        for (int i = 0; i < args.size(); ++i) {
+            addPFGEdge(pointerFlowGraph.getVarPtr(args.get(i)),
+                    pointerFlowGraph.getVarPtr(ir.getParam(i)));
+        }
+        Var result = callSite.getResult();
+        if (result != null) {
+            for (Var ret : ir.getReturnVars()) {
+                addPFGEdge(pointerFlowGraph.getVarPtr(ret),
+                        pointerFlowGraph.getVarPtr(result));
+            }
+        }
     }
 
     /**
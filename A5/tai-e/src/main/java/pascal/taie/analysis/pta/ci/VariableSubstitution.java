@@ -0,0 +1,221 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.ci;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCC;
+import pascal.taie.util.graph.SimpleGraph;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline variable substitution for pointer analysis.
+ * <p>
+ * Before the variables of a method are added to the PFG, this pass labels
+ * each of them with the set of sources its points-to set is built from,
+ * in the style of hash-based value numbering (HVN): allocation sites,
+ * field and array loads on bases of given value numbers, static field
+ * loads, and unknown sources such as parameters, "this" variable,
+ * caught exceptions and invocation results.
+ * Variables with the same label are pointer-equivalent, so they are merged
+ * into one representative up front, and the objects of the method are
+ * propagated among fewer pointers.
+ * <p>
+ * Only the variables that have no statement to be processed on new objects
+ * are merged, for the same reason as in {@link PointerFlowGraph}.
+ */
+class VariableSubstitution {
+
+    /**
+     * Map from a method to the substitutions of its variables.
+     */
+    private final Map<JMethod, Map<Var, Var>> substitutions = Maps.newMap();
+
+    /**
+     * @return the variable that the given variable is merged into,
+     * or the variable itself if it is not merged.
+     */
+    Var getRepresentative(Var var) {
+        return substitutions
+                .computeIfAbsent(var.getMethod(), VariableSubstitution::substitute)
+                .getOrDefault(var, var);
+    }
+
+    /**
+     * Computes the substitutions of the variables in given method.
+     */
+    private static Map<Var, Var> substitute(JMethod method) {
+        IR ir = method.getIR();
+        // builds offline constraint graph, where each variable
+        // depends on the variables it is copied or loaded from
+        SimpleGraph<Var> graph = new SimpleGraph<>();
+        MultiMap<Var, Stmt> defs = Maps.newMultiMap();
+        ir.getVars().forEach(graph::addNode);
+        for (Stmt stmt : ir) {
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var var) {
+                    defs.put(var, stmt);
+                    Var source = getSource(stmt);
+                    if (source != null) {
+                        graph.addEdge(source, var);
+                    }
+                }
+            });
+        }
+        // parameters and "this" variable receive objects from the callers
+        // besides their definitions in the method, thus they are
+        // always unknown sources
+        Set<Var> inputs = Sets.newSet();
+        inputs.addAll(ir.getParams());
+        if (ir.getThis() != null) {
+            inputs.add(ir.getThis());
+        }
+        // computes value numbers from the sources to the sinks;
+        // the components are given in reverse topological order
+        Map<Var, Set<Object>> labels = Maps.newMap();
+        Map<Set<Object>, Integer> numbers = Maps.newMap();
+        Map<Var, Integer> valueNumbers = Maps.newMap();
+        List<List<Var>> components = new SCC<>(graph).getComponents();
+        for (int i = components.size() - 1; i >= 0; --i) {
+            List<Var> component = components.get(i);
+            Set<Object> label = label(component, defs, inputs,
+                    labels, valueNumbers);
+            if (label != null) {
+                int number = numbers.computeIfAbsent(label, l -> numbers.size());
+                component.forEach(v -> {
+                    labels.put(v, label);
+                    valueNumbers.put(v, number);
+                });
+            } else {
+                // the variables are not equivalent in general,
+                // thus each of them is given a unique label
+                component.forEach(v -> {
+                    Set<Object> unique = Set.of(v);
+                    labels.put(v, unique);
+                    valueNumbers.put(v, numbers.computeIfAbsent(
+                            unique, l -> numbers.size()));
+                });
+            }
+        }
+        // merges the equivalent variables into the first of them
+        Map<Integer, Var> reps = Maps.newMap();
+        Map<Var, Var> substitution = Maps.newMap();
+        for (Var var : ir.getVars()) {
+            if (PointerFlowGraph.isCollapsible(var)) {
+                Var rep = reps.putIfAbsent(valueNumbers.get(var), var);
+                if (rep != null) {
+                    substitution.put(var, rep);
+                }
+            }
+        }
+        return substitution;
+    }
+
+    /**
+     * @return the variable which the variable defined by given statement
+     * is copied or loaded from, or null if such variable does not exist.
+     */
+    private static @Nullable Var getSource(Stmt stmt) {
+        if (stmt instanceof Copy copy) {
+            return copy.getRValue();
+        } else if (stmt instanceof LoadField load
+                && load.getFieldAccess() instanceof InstanceFieldAccess access) {
+            return access.getBase();
+        } else if (stmt instanceof LoadArray load) {
+            return load.getArrayAccess().getBase();
+        }
+        return null;
+    }
+
+    /**
+     * Computes the label shared by the variables in given component
+     * of the offline constraint graph.
+     *
+     * @return the label, or null if some variable in the component is
+     * loaded through another one in the same component.
+     */
+    private static @Nullable Set<Object> label(List<Var> component,
+                                     MultiMap<Var, Stmt> defs,
+                                     Set<Var> inputs,
+                                     Map<Var, Set<Object>> labels,
+                                     Map<Var, Integer> valueNumbers) {
+        Set<Object> label = Sets.newSet();
+        for (Var var : component) {
+            Set<Stmt> varDefs = defs.get(var);
+            if (varDefs.isEmpty() || inputs.contains(var)) {
+                // parameters and "this" variable, even if they are
+                // (re)defined in the method, and other undefined variables
+                label.add(var);
+            }
+            for (Stmt stmt : varDefs) {
+                Var source = getSource(stmt);
+                if (source != null && component.contains(source)) {
+                    if (stmt instanceof Copy) {
+                        continue;
+                    }
+                    // load through a variable in the same component,
+                    // whose value number is not available
+                    return null;
+                }
+                if (stmt instanceof New) {
+                    label.add(stmt);
+                } else if (stmt instanceof Copy) {
+                    label.addAll(labels.get(source));
+                } else if (stmt instanceof LoadField load) {
+                    JField field = load.getFieldRef().resolve();
+                    label.add(source == null ? field :
+                            new FieldLabel(valueNumbers.get(source), field));
+                } else if (stmt instanceof LoadArray) {
+                    label.add(new ArrayLabel(valueNumbers.get(source)));
+                } else {
+                    // invocation results, caught exceptions
+                    // and other unknown sources
+                    label.add(var);
+                }
+            }
+        }
+        return label;
+    }
+
+    private record FieldLabel(int base, JField field) {
+    }
+
+    private record ArrayLabel(int base) {
+    }
+}
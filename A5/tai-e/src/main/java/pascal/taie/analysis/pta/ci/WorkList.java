@@ -22,21 +22,46 @@
 
 package pascal.taie.analysis.pta.ci;
 
+import pascal.taie.util.collection.Maps;
+
 import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Queue;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * The entries of the same pointer are coalesced: each pointer is queued
+ * at most once, with the pending objects of all entries added to it since
+ * it was queued. Objects that are already in the points-to set of the
+ * pointer are dropped, so each entry holds only the difference to be
+ * propagated.
  */
 class WorkList {
 
-    private final Queue<Entry> entries = new ArrayDeque<>();
+    private final Queue<Pointer> pointers = new ArrayDeque<>();
+
+    /**
+     * Pending objects of the queued pointers.
+     */
+    private final Map<Pointer, PointsToSet> pending = Maps.newMap();
 
     /**
      * Adds an entry to the work list.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        entries.add(new Entry(pointer, pointsToSet));
+        PointsToSet objs = pointer.getPointsToSet().diff(pointsToSet);
+        if (objs.isEmpty()) {
+            return;
+        }
+        PointsToSet diff = pending.get(pointer);
+        if (diff == null) {
+            pending.put(pointer, objs);
+            pointers.add(pointer);
+        } else {
+            diff.addAll(objs);
+        }
     }
 
     /**
@@ -44,14 +69,29 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        Pointer pointer = pointers.poll();
+        return pointer == null ? null :
+                new Entry(pointer, pending.remove(pointer));
+    }
+
+    /**
+     * Moves the entries of each pointer to the pointer given by redirect,
+     * e.g., when the pointer is collapsed into a representative in PFG.
+     */
+    void redirectEntries(UnaryOperator<Pointer> redirect) {
+        // rotates the queue once, and the entries redirected to
+        // the same pointer are merged
+        for (int i = pointers.size(); i > 0 && !pointers.isEmpty(); --i) {
+            Entry entry = pollEntry();
+            addEntry(redirect.apply(entry.pointer()), entry.pointsToSet());
+        }
     }
 
     /**
      * @return true if the work list is empty, otherwise false.
      */
     boolean isEmpty() {
-        return entries.isEmpty();
+        return pointers.isEmpty();
     }
 
     /**
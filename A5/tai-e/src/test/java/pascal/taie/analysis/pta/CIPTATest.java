@@ -78,4 +78,24 @@ public class CIPTATest {
     public void testMergeParam() {
         Tests.testCIPTA(DIR, "MergeParam");
     }
+
+    @Test
+    public void testCyclicAssign() {
+        Tests.testCIPTA(DIR, "CyclicAssign");
+    }
+
+    @Test
+    public void testVarSubstitution() {
+        Tests.testCIPTA(DIR, "Assign2", "var-substitution:true");
+    }
+
+    @Test
+    public void testParallel() {
+        Tests.testCIPTA(DIR, "Example", "parallel:4");
+    }
+
+    @Test
+    public void testParallelAllProcessors() {
+        Tests.testCIPTA(DIR, "Example", "parallel:0");
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.ci;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class PointerFlowGraphTest {
+
+    private static final int CYCLE_SIZE = 10;
+
+    /**
+     * Builds a cycle with an outside predecessor of all its pointers,
+     * and adds enough other edges to trigger the cycle detection.
+     */
+    @Test
+    public void testCollapse() {
+        WorkList workList = new WorkList();
+        PointerFlowGraph pfg = new PointerFlowGraph(workList, null, false);
+        List<Pointer> cycle = new ArrayList<>();
+        for (int i = 0; i < CYCLE_SIZE; ++i) {
+            cycle.add(pfg.getArrayIndex(new MockObj("c" + i)));
+        }
+        Pointer source = pfg.getArrayIndex(new MockObj("source"));
+        Obj pending = new MockObj("pending");
+        workList.addEntry(cycle.get(CYCLE_SIZE / 2), pfg.makePointsToSet(pending));
+        int edges = 0;
+        for (int i = 0; i < CYCLE_SIZE; ++i) {
+            pfg.addEdge(cycle.get(i), cycle.get((i + 1) % CYCLE_SIZE));
+            pfg.addEdge(source, cycle.get(i));
+            edges += 2;
+        }
+        Pointer prev = pfg.getArrayIndex(new MockObj("chain"));
+        for (int i = 0; edges < 128; ++i, ++edges) {
+            Pointer next = pfg.getArrayIndex(new MockObj("chain" + i));
+            pfg.addEdge(prev, next);
+            prev = next;
+        }
+
+        Pointer rep = pfg.getRepresentative(cycle.get(0));
+        cycle.forEach(p -> Assert.assertSame(rep, pfg.getRepresentative(p)));
+        // in-edges of the collapsed pointers are redirected
+        Assert.assertEquals(Set.of(rep), pfg.getSuccsOf(source));
+        // pending objects of the collapsed pointers are moved
+        boolean moved = false;
+        while (!workList.isEmpty()) {
+            WorkList.Entry entry = workList.pollEntry();
+            Assert.assertSame(entry.pointer(),
+                    pfg.getRepresentative(entry.pointer()));
+            moved |= entry.pointer() == rep
+                    && entry.pointsToSet().contains(pending);
+        }
+        Assert.assertTrue(moved);
+    }
+
+    private record MockObj(String name) implements Obj {
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return name;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return null;
+        }
+    }
+}
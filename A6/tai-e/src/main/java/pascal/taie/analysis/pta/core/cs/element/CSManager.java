@@ -28,6 +28,7 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
 
 import java.util.Collection;
 
@@ -92,6 +93,12 @@ public interface CSManager {
      */
     Collection<CSObj> getObjects();
 
+    /**
+     * @return the indexer of the context-sensitive objects created by
+     * this manager, which maps them to and from their indexes.
+     */
+    Indexer<CSObj> getObjectIndexer();
+
     /**
      * @return all static field pointers.
      */
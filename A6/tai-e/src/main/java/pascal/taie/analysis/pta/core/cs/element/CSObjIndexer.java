@@ -0,0 +1,68 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexer;
+
+import java.util.Arrays;
+
+/**
+ * Creates and numbers the context-sensitive objects of a {@link CSManager}.
+ * Each object is assigned the next index at its creation, thus the objects
+ * of an analysis are numbered consecutively from 0, independent of other
+ * analyses. This class is thread-safe.
+ */
+class CSObjIndexer implements Indexer<CSObj> {
+
+    private volatile CSObj[] objs = new CSObj[1024];
+
+    private int counter = 0;
+
+    /**
+     * @return a new context-sensitive object with the next index.
+     */
+    synchronized CSObj makeCSObj(Obj obj, Context context) {
+        int index = counter++;
+        CSObj[] array = objs;
+        if (index == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        CSObj csObj = new CSObj(obj, context, index);
+        array[index] = csObj;
+        // publishes the object before its index
+        objs = array;
+        return csObj;
+    }
+
+    @Override
+    public int getIndex(CSObj o) {
+        return o.getIndex();
+    }
+
+    @Override
+    public CSObj getObject(int index) {
+        return objs[index];
+    }
+}
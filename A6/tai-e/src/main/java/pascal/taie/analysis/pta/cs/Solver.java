@@ -38,6 +38,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.ConcurrentCSManager;
 import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
@@ -45,9 +46,11 @@ import pascal.taie.analysis.pta.core.cs.element.StaticField;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.heap.SynchronizedHeapModel;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Copy;
@@ -61,6 +64,14 @@ import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 class Solver {
 
@@ -72,8 +83,17 @@ class Solver {
 
     private final ContextSelector contextSelector;
 
+    /**
+     * Number of worker threads given by option "parallel", where 0 means
+     * all available processors. The work list is processed in parallel
+     * if it is greater than 1.
+     */
+    private final int parallelism;
+
     private CSManager csManager;
 
+    private PointsToSetFactory ptsFactory;
+
     private CSCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
@@ -85,20 +105,33 @@ class Solver {
     Solver(AnalysisOptions options, HeapModel heapModel,
            ContextSelector contextSelector) {
         this.options = options;
-        this.heapModel = heapModel;
+        if (options.get("parallel") == null) {
+            parallelism = 1;
+        } else {
+            int n = options.getInt("parallel");
+            parallelism = n > 0 ? n : Runtime.getRuntime().availableProcessors();
+        }
+        this.heapModel = parallelism > 1 ?
+                new SynchronizedHeapModel(heapModel) : heapModel;
         this.contextSelector = contextSelector;
     }
 
     void solve() {
         initialize();
-        analyze();
+        if (parallelism > 1) {
+            analyzeInParallel();
+        } else {
+            analyze();
+        }
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        boolean parallel = parallelism > 1;
+        csManager = parallel ? new ConcurrentCSManager() : new MapBasedCSManager();
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
         callGraph = new CSCallGraph(csManager);
-        pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        workList = parallel ? new ConcurrentWorkList() : new WorkList();
+        pointerFlowGraph = new PointerFlowGraph(workList, parallel);
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -111,7 +144,10 @@ class Solver {
      * Processes new reachable context-sensitive method.
      */
     private void addReachable(CSMethod csMethod) {
-        // TODO - finish me
+        if (callGraph.addReachableMethod(csMethod)) {
+            StmtProcessor stmtProcessor = new StmtProcessor(csMethod);
+            csMethod.getMethod().getIR().forEach(stmt -> stmt.accept(stmtProcessor));
+        }
     }
 
     /**
@@ -128,22 +164,149 @@ class Solver {
             this.context = csMethod.getContext();
         }
 
-        // TODO - if you choose to implement addReachable()
-        //  via visitor pattern, then finish me
+        @Override
+        public Void visit(New stmt) {
+            Obj obj = heapModel.getObj(stmt);
+            Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
+            workList.addEntry(csManager.getCSVar(context, stmt.getLValue()),
+                    ptsFactory.make(csManager.getCSObj(heapContext, obj)));
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            addPFGEdge(csManager.getCSVar(context, stmt.getRValue()),
+                    csManager.getCSVar(context, stmt.getLValue()));
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(csManager.getStaticField(field),
+                        csManager.getCSVar(context, stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(csManager.getCSVar(context, stmt.getRValue()),
+                        csManager.getStaticField(field));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Invoke stmt) {
+            if (stmt.isStatic()) {
+                JMethod callee = resolveCallee(null, stmt);
+                if (callee != null) {
+                    CSCallSite csCallSite = csManager.getCSCallSite(context, stmt);
+                    Context calleeContext = contextSelector.selectContext(
+                            csCallSite, callee);
+                    processCallEdge(csCallSite,
+                            csManager.getCSMethod(calleeContext, callee));
+                }
+            }
+            return null;
+        }
     }
 
     /**
      * Adds an edge "source -> target" to the PFG.
      */
     private void addPFGEdge(Pointer source, Pointer target) {
-        // TODO - finish me
+        if (pointerFlowGraph.addEdge(source, target)) {
+            PointsToSet pts = source.getPointsToSet();
+            if (!pts.isEmpty()) {
+                workList.addEntry(target, pts);
+            }
+        }
     }
 
     /**
      * Processes work-list entries until the work-list is empty.
      */
     private void analyze() {
-        // TODO - finish me
+        while (!workList.isEmpty()) {
+            WorkList.Entry entry = workList.pollEntry();
+            Pointer pointer = entry.pointer();
+            PointsToSet delta = propagate(pointer, entry.pointsToSet());
+            if (pointer instanceof CSVar csVar && !delta.isEmpty()) {
+                for (CSObj obj : delta) {
+                    processInstanceFieldsAndArrays(csVar, obj);
+                    processCall(csVar, obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the instance field and array accesses on given variable
+     * when it points to a new object.
+     */
+    private void processInstanceFieldsAndArrays(CSVar csVar, CSObj obj) {
+        Context context = csVar.getContext();
+        Var var = csVar.getVar();
+        for (StoreField store : var.getStoreFields()) {
+            JField field = store.getFieldRef().resolve();
+            addPFGEdge(csManager.getCSVar(context, store.getRValue()),
+                    csManager.getInstanceField(obj, field));
+        }
+        for (LoadField load : var.getLoadFields()) {
+            JField field = load.getFieldRef().resolve();
+            addPFGEdge(csManager.getInstanceField(obj, field),
+                    csManager.getCSVar(context, load.getLValue()));
+        }
+        for (StoreArray store : var.getStoreArrays()) {
+            addPFGEdge(csManager.getCSVar(context, store.getRValue()),
+                    csManager.getArrayIndex(obj));
+        }
+        for (LoadArray load : var.getLoadArrays()) {
+            addPFGEdge(csManager.getArrayIndex(obj),
+                    csManager.getCSVar(context, load.getLValue()));
+        }
+    }
+
+    /**
+     * Processes work-list entries by multiple worker threads, each of which
+     * runs {@link #analyze()} on the shared work list until the work list
+     * is empty, i.e., until no entry is left and no worker is busy.
+     */
+    private void analyzeInParallel() {
+        logger.info("Analyzing with {} threads", parallelism);
+        ConcurrentWorkList concurrentWorkList = (ConcurrentWorkList) workList;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> workers = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; ++i) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        analyze();
+                    } catch (RuntimeException | Error e) {
+                        // stops other workers waiting for new entries
+                        concurrentWorkList.abort();
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Worker of pointer analysis failed",
+                    e.getCause());
+        } catch (InterruptedException e) {
+            concurrentWorkList.abort();
+            Thread.currentThread().interrupt();
+            throw new AnalysisException(e);
+        } finally {
+            executor.shutdown();
+        }
     }
 
     /**
@@ -151,8 +314,12 @@ class Solver {
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
-        // TODO - finish me
-        return null;
+        PointsToSet delta = pointer.getPointsToSet().addAllDiff(pointsToSet);
+        if (!delta.isEmpty()) {
+            pointerFlowGraph.getSuccsOf(pointer).forEach(succ ->
+                    workList.addEntry(succ, delta));
+        }
+        return delta;
     }
 
     /**
@@ -162,7 +329,52 @@ class Solver {
      * @param recvObj set of new discovered objects pointed by the variable.
      */
     private void processCall(CSVar recv, CSObj recvObj) {
-        // TODO - finish me
+        Context context = recv.getContext();
+        for (Invoke callSite : recv.getVar().getInvokes()) {
+            JMethod callee = resolveCallee(recvObj, callSite);
+            if (callee == null) {
+                continue;
+            }
+            CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+            Context calleeContext = contextSelector.selectContext(
+                    csCallSite, recvObj, callee);
+            Var thisVar = callee.getIR().getThis();
+            if (thisVar != null) {
+                workList.addEntry(csManager.getCSVar(calleeContext, thisVar),
+                        ptsFactory.make(recvObj));
+            }
+            processCallEdge(csCallSite,
+                    csManager.getCSMethod(calleeContext, callee));
+        }
+    }
+
+    /**
+     * Adds the call edge from csCallSite to csCallee, and if it is new,
+     * makes the callee reachable and connects the arguments and return
+     * values of the call.
+     */
+    private void processCallEdge(CSCallSite csCallSite, CSMethod csCallee) {
+        Invoke callSite = csCallSite.getCallSite();
+        CallKind kind = CallGraphs.getCallKind(callSite);
+        if (!callGraph.addEdge(new Edge<>(kind, csCallSite, csCallee))) {
+            return;
+        }
+        addReachable(csCallee);
+        Context callerContext = csCallSite.getContext();
+        Context calleeContext = csCallee.getContext();
+        IR ir = csCallee.getMethod().getIR();
+        List<Var> args = callSite.getInvokeExp().getArgs();
+        for (int i = 0; i < args.size(); ++i) {
+            addPFGEdge(csManager.getCSVar(callerContext, args.get(i)),
+                    csManager.getCSVar(calleeContext, ir.getParam(i)));
+        }
+        Var result = callSite.getResult();
+        if (result != null) {
+            for (Var ret : ir.getReturnVars()) {
+                addPFGEdge(csManager.getCSVar(calleeContext, ret),
+                        csManager.getCSVar(callerContext, result));
+            }
+        }
     }
 
     /**
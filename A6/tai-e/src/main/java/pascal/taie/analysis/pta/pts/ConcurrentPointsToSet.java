@@ -0,0 +1,118 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set that can be read and updated by multiple threads.
+ * <p>
+ * Each set is guarded by its own lock. The objects are iterated over
+ * a snapshot taken under the lock, thus the iteration is not affected
+ * by the objects added concurrently. The lock of given set is never held
+ * together with the lock of another set, so that the union of two sets
+ * cannot deadlock.
+ */
+class ConcurrentPointsToSet implements PointsToSet {
+
+    private final Indexer<CSObj> objIndexer;
+
+    private final BitSetPointsToSet set;
+
+    ConcurrentPointsToSet(Indexer<CSObj> objIndexer) {
+        this.objIndexer = objIndexer;
+        this.set = new BitSetPointsToSet(objIndexer);
+    }
+
+    @Override
+    public synchronized boolean addObject(CSObj obj) {
+        return set.addObject(obj);
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        PointsToSet objs = snapshot(pts);
+        synchronized (this) {
+            return set.addAll(objs);
+        }
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        PointsToSet objs = snapshot(pts);
+        synchronized (this) {
+            return set.addAllDiff(objs);
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(CSObj obj) {
+        return set.contains(obj);
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return set.isEmpty();
+    }
+
+    @Override
+    public synchronized int size() {
+        return set.size();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return copy().getObjects();
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return copy().objects();
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        return copy().iterator();
+    }
+
+    private synchronized PointsToSet copy() {
+        PointsToSet copy = new BitSetPointsToSet(objIndexer);
+        copy.addAll(set);
+        return copy;
+    }
+
+    private static PointsToSet snapshot(PointsToSet pts) {
+        return pts instanceof ConcurrentPointsToSet other ? other.copy() : pts;
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+}
@@ -23,26 +23,40 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
-import pascal.taie.util.collection.Sets;
-
-import java.util.Set;
-import java.util.function.Supplier;
+import pascal.taie.util.Indexer;
 
 /**
- * Provides static factory methods for {@link PointsToSet}.
+ * Provides factory methods for {@link PointsToSet}.
+ * <p>
+ * The sets made by a factory keep the objects by the indexes of given
+ * {@link Indexer}, thus each analysis has its own factory, and only
+ * the sets of the same analysis can be combined.
  */
 public class PointsToSetFactory {
 
-    private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
+    private final Indexer<CSObj> objIndexer;
+
+    public PointsToSetFactory(Indexer<CSObj> objIndexer) {
+        this.objIndexer = objIndexer;
+    }
 
-    public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+    public PointsToSet make() {
+        return new BitSetPointsToSet(objIndexer);
+    }
+
+    /**
+     * Makes a points-to set that can be read and updated by multiple
+     * threads, e.g., the points-to set of a pointer in parallel
+     * pointer analysis.
+     */
+    public PointsToSet makeConcurrent() {
+        return new ConcurrentPointsToSet(objIndexer);
     }
 
     /**
      * Convenient method for making one-element points-to set.
      */
-    public static PointsToSet make(CSObj obj) {
+    public PointsToSet make(CSObj obj) {
         PointsToSet set = make();
         set.addObject(obj);
         return set;
@@ -60,7 +60,7 @@ public class JMethod extends ClassMember {
      */
     private final Object methodSource;
 
-    private IR ir;
+    private volatile IR ir;
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -154,10 +154,14 @@ public class JMethod extends ClassMember {
                 throw new AnalysisException("Abstract method " + this +
                         " has no method body");
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            synchronized (this) {
+                if (ir == null) {
+                    if (isNative()) {
+                        ir = World.get().getNativeModel().buildNativeIR(this);
+                    } else {
+                        ir = World.get().getIRBuilder().buildIR(this);
+                    }
+                }
             }
         }
         return ir;
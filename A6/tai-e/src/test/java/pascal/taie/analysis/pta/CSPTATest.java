@@ -93,4 +93,14 @@ public class CSPTATest {
     public void testArray() {
         Tests.testCSPTA(DIR, "Array");
     }
+
+    @Test
+    public void testCyclicAssign() {
+        Tests.testCSPTA(DIR, "CyclicAssign");
+    }
+
+    @Test
+    public void testParallel() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "parallel:4");
+    }
 }
@@ -0,0 +1,144 @@
+public class CyclicAssign {
+
+    public static void main(String[] args) {
+        A v0 = new A();
+        A v1 = v0;
+        A v2 = v1;
+        A v3 = v2;
+        A v4 = v3;
+        A v5 = v4;
+        A v6 = v5;
+        A v7 = v6;
+        A v8 = v7;
+        A v9 = v8;
+        v0 = v9;
+        A w0 = v5;
+        A w1 = w0;
+        A w2 = w1;
+        A w3 = w2;
+        A w4 = w3;
+        A w5 = w4;
+        A w6 = w5;
+        A w7 = w6;
+        A w8 = w7;
+        A w9 = w8;
+        A w10 = w9;
+        A w11 = w10;
+        A w12 = w11;
+        A w13 = w12;
+        A w14 = w13;
+        A w15 = w14;
+        A w16 = w15;
+        A w17 = w16;
+        A w18 = w17;
+        A w19 = w18;
+        A w20 = w19;
+        A w21 = w20;
+        A w22 = w21;
+        A w23 = w22;
+        A w24 = w23;
+        A w25 = w24;
+        A w26 = w25;
+        A w27 = w26;
+        A w28 = w27;
+        A w29 = w28;
+        A w30 = w29;
+        A w31 = w30;
+        A w32 = w31;
+        A w33 = w32;
+        A w34 = w33;
+        A w35 = w34;
+        A w36 = w35;
+        A w37 = w36;
+        A w38 = w37;
+        A w39 = w38;
+        A w40 = w39;
+        A w41 = w40;
+        A w42 = w41;
+        A w43 = w42;
+        A w44 = w43;
+        A w45 = w44;
+        A w46 = w45;
+        A w47 = w46;
+        A w48 = w47;
+        A w49 = w48;
+        A w50 = w49;
+        A w51 = w50;
+        A w52 = w51;
+        A w53 = w52;
+        A w54 = w53;
+        A w55 = w54;
+        A w56 = w55;
+        A w57 = w56;
+        A w58 = w57;
+        A w59 = w58;
+        A w60 = w59;
+        A w61 = w60;
+        A w62 = w61;
+        A w63 = w62;
+        A w64 = w63;
+        A w65 = w64;
+        A w66 = w65;
+        A w67 = w66;
+        A w68 = w67;
+        A w69 = w68;
+        A w70 = w69;
+        A w71 = w70;
+        A w72 = w71;
+        A w73 = w72;
+        A w74 = w73;
+        A w75 = w74;
+        A w76 = w75;
+        A w77 = w76;
+        A w78 = w77;
+        A w79 = w78;
+        A w80 = w79;
+        A w81 = w80;
+        A w82 = w81;
+        A w83 = w82;
+        A w84 = w83;
+        A w85 = w84;
+        A w86 = w85;
+        A w87 = w86;
+        A w88 = w87;
+        A w89 = w88;
+        A w90 = w89;
+        A w91 = w90;
+        A w92 = w91;
+        A w93 = w92;
+        A w94 = w93;
+        A w95 = w94;
+        A w96 = w95;
+        A w97 = w96;
+        A w98 = w97;
+        A w99 = w98;
+        A w100 = w99;
+        A w101 = w100;
+        A w102 = w101;
+        A w103 = w102;
+        A w104 = w103;
+        A w105 = w104;
+        A w106 = w105;
+        A w107 = w106;
+        A w108 = w107;
+        A w109 = w108;
+        A w110 = w109;
+        A w111 = w110;
+        A w112 = w111;
+        A w113 = w112;
+        A w114 = w113;
+        A w115 = w114;
+        A w116 = w115;
+        A w117 = w116;
+        A w118 = w117;
+        A w119 = w118;
+        B b = new B();
+        v3 = b;
+    }
+}
+
+class A {
+}
+
+class B extends A {
+}
@@ -56,33 +56,51 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        // the parameters may hold any value
+        CPFact fact = newInitialFact();
+        for (Var param : cfg.getIR().getParams()) {
+            if (canHoldInt(param)) {
+                fact.update(param, Value.getNAC());
+            }
+        }
+        return fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        fact.forEach((var, value) ->
+                target.update(var, meetValue(value, target.get(var))));
     }
 
     /**
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
-        return null;
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        } else if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else {
+            return v1.equals(v2) ? v1 : Value.getNAC();
+        }
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var lhs && canHoldInt(lhs)) {
+            CPFact newOut = in.copy();
+            newOut.update(lhs, evaluate(def.getRValue(), in));
+            return out.copyFrom(newOut);
+        }
+        return out.copyFrom(in);
     }
 
     /**
@@ -111,7 +129,68 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
-        return null;
+        if (exp instanceof IntLiteral literal) {
+            return Value.makeConstant(literal.getValue());
+        } else if (exp instanceof Var var) {
+            return canHoldInt(var) ? in.get(var) : Value.getNAC();
+        } else if (exp instanceof BinaryExp binary) {
+            return evaluate(binary, in.get(binary.getOperand1()),
+                    in.get(binary.getOperand2()));
+        }
+        // other expressions, e.g., invocations and field loads,
+        // are conservatively treated as NAC
+        return Value.getNAC();
+    }
+
+    private static Value evaluate(BinaryExp exp, Value v1, Value v2) {
+        BinaryExp.Op op = exp.getOperator();
+        if (v2.isConstant() && v2.getConstant() == 0 &&
+                (op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM)) {
+            // division by zero
+            return Value.getUndef();
+        }
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        }
+        if (!v1.isConstant() || !v2.isConstant()) {
+            return Value.getUndef();
+        }
+        int c1 = v1.getConstant();
+        int c2 = v2.getConstant();
+        int result;
+        if (exp instanceof ArithmeticExp) {
+            result = switch ((ArithmeticExp.Op) op) {
+                case ADD -> c1 + c2;
+                case SUB -> c1 - c2;
+                case MUL -> c1 * c2;
+                case DIV -> c1 / c2;
+                case REM -> c1 % c2;
+            };
+        } else if (exp instanceof ConditionExp) {
+            boolean b = switch ((ConditionExp.Op) op) {
+                case EQ -> c1 == c2;
+                case NE -> c1 != c2;
+                case LT -> c1 < c2;
+                case GT -> c1 > c2;
+                case LE -> c1 <= c2;
+                case GE -> c1 >= c2;
+            };
+            result = b ? 1 : 0;
+        } else if (exp instanceof ShiftExp) {
+            result = switch ((ShiftExp.Op) op) {
+                case SHL -> c1 << c2;
+                case SHR -> c1 >> c2;
+                case USHR -> c1 >>> c2;
+            };
+        } else if (exp instanceof BitwiseExp) {
+            result = switch ((BitwiseExp.Op) op) {
+                case OR -> c1 | c2;
+                case AND -> c1 & c2;
+                case XOR -> c1 ^ c2;
+            };
+        } else {
+            throw new AnalysisException("Unexpected binary expression: " + exp);
+        }
+        return Value.makeConstant(result);
     }
 }
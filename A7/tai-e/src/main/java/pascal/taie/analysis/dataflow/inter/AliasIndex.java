@@ -0,0 +1,269 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the field and array stores/loads that may alias, for
+ * alias-aware constant propagation.
+ * <p>
+ * The index is built once from the result of pointer analysis: it maps
+ * each abstract object and field to the stores to (and loads from) the
+ * field of the object, and each array object to the stores to (and loads
+ * from) its elements. It also records the values written by each store,
+ * and caches the meet of the values of the stores to each field and array
+ * object, so that the value of a load is computed from a few cached
+ * values instead of scanning all aliased stores. The cached meets are
+ * invalidated only when the values written by their stores change.
+ */
+class AliasIndex {
+
+    private final PointerAnalysisResult pta;
+
+    private final ConstantPropagation cp;
+
+    private final MultiMap<FieldKey, StoreField> fieldStores = Maps.newMultiMap();
+
+    private final MultiMap<FieldKey, LoadField> fieldLoads = Maps.newMultiMap();
+
+    private final MultiMap<Obj, StoreArray> arrayStores = Maps.newMultiMap();
+
+    private final MultiMap<Obj, LoadArray> arrayLoads = Maps.newMultiMap();
+
+    /**
+     * Values written by the (reached) stores.
+     */
+    private final Map<Stmt, Value> storeValues = Maps.newMap();
+
+    /**
+     * Values of the indexes of the (reached) array stores.
+     */
+    private final Map<StoreArray, Value> storeIndexes = Maps.newMap();
+
+    /**
+     * Cached meets of the values of the stores to each field.
+     */
+    private final Map<FieldKey, Value> fieldValues = Maps.newMap();
+
+    /**
+     * Cached meets of the values of the stores to each array object,
+     * per value of index (a constant or NAC).
+     */
+    private final Map<Obj, Map<Value, Value>> arrayValues = Maps.newMap();
+
+    AliasIndex(PointerAnalysisResult pta, ConstantPropagation cp) {
+        this.pta = pta;
+        this.cp = cp;
+        pta.getCallGraph().reachableMethods().forEach(method ->
+                method.getIR().forEach(this::addStmt));
+    }
+
+    private void addStmt(Stmt stmt) {
+        if (stmt instanceof StoreField store) {
+            if (ConstantPropagation.canHoldInt(store.getRValue())) {
+                getKeysOf(store.getFieldAccess().getFieldRef().resolve(),
+                        getBaseOf(store.getFieldAccess()))
+                        .forEach(key -> fieldStores.put(key, store));
+            }
+        } else if (stmt instanceof LoadField load) {
+            if (ConstantPropagation.canHoldInt(load.getLValue())) {
+                getKeysOf(load.getFieldAccess().getFieldRef().resolve(),
+                        getBaseOf(load.getFieldAccess()))
+                        .forEach(key -> fieldLoads.put(key, load));
+            }
+        } else if (stmt instanceof StoreArray store) {
+            if (ConstantPropagation.canHoldInt(store.getRValue())) {
+                pta.getPointsToSet(store.getArrayAccess().getBase())
+                        .forEach(obj -> arrayStores.put(obj, store));
+            }
+        } else if (stmt instanceof LoadArray load) {
+            if (ConstantPropagation.canHoldInt(load.getLValue())) {
+                pta.getPointsToSet(load.getArrayAccess().getBase())
+                        .forEach(obj -> arrayLoads.put(obj, load));
+            }
+        }
+    }
+
+    @Nullable
+    private static Var getBaseOf(FieldAccess fieldAccess) {
+        return fieldAccess instanceof InstanceFieldAccess access ?
+                access.getBase() : null;
+    }
+
+    /**
+     * @return the keys of the field accessed via {@code base}, or of
+     * the static field if {@code base} is null.
+     */
+    private Set<FieldKey> getKeysOf(JField field, @Nullable Var base) {
+        if (base == null) {
+            return Set.of(new FieldKey(null, field));
+        }
+        Set<FieldKey> keys = Sets.newHybridSet();
+        pta.getPointsToSet(base).forEach(obj -> keys.add(new FieldKey(obj, field)));
+        return keys;
+    }
+
+    /**
+     * Records the value written by a field store given its IN fact.
+     *
+     * @return the loads that may read the store if the value changes,
+     * otherwise an empty set.
+     */
+    Set<LoadField> updateStore(StoreField store, CPFact in) {
+        if (!ConstantPropagation.canHoldInt(store.getRValue()) ||
+                !updateValue(storeValues, store, in.get(store.getRValue()))) {
+            return Set.of();
+        }
+        Set<LoadField> loads = Sets.newSet();
+        getKeysOf(store.getFieldAccess().getFieldRef().resolve(),
+                getBaseOf(store.getFieldAccess())).forEach(key -> {
+            fieldValues.remove(key);
+            loads.addAll(fieldLoads.get(key));
+        });
+        return loads;
+    }
+
+    /**
+     * Records the value and index written by an array store given its IN fact.
+     *
+     * @return the loads that may read the store if the value or index
+     * changes, otherwise an empty set.
+     */
+    Set<LoadArray> updateStore(StoreArray store, CPFact in) {
+        if (!ConstantPropagation.canHoldInt(store.getRValue())) {
+            return Set.of();
+        }
+        // evaluates both updates, as both value and index may change
+        boolean changed = updateValue(storeValues, store,
+                in.get(store.getRValue()));
+        changed |= updateValue(storeIndexes, store,
+                in.get(store.getArrayAccess().getIndex()));
+        if (!changed) {
+            return Set.of();
+        }
+        Set<LoadArray> loads = Sets.newSet();
+        pta.getPointsToSet(store.getArrayAccess().getBase()).forEach(obj -> {
+            arrayValues.remove(obj);
+            loads.addAll(arrayLoads.get(obj));
+        });
+        return loads;
+    }
+
+    private static <K> boolean updateValue(Map<K, Value> values, K key, Value value) {
+        return !value.equals(values.put(key, value));
+    }
+
+    /**
+     * @return the value read by a field load, i.e., the meet of the values
+     * written by all stores to the aliased fields.
+     */
+    Value getValue(LoadField load) {
+        Value value = Value.getUndef();
+        for (FieldKey key : getKeysOf(load.getFieldAccess().getFieldRef().resolve(),
+                getBaseOf(load.getFieldAccess()))) {
+            value = cp.meetValue(value,
+                    fieldValues.computeIfAbsent(key, this::computeFieldValue));
+        }
+        return value;
+    }
+
+    private Value computeFieldValue(FieldKey key) {
+        Value value = Value.getUndef();
+        for (StoreField store : fieldStores.get(key)) {
+            value = cp.meetValue(value,
+                    storeValues.getOrDefault(store, Value.getUndef()));
+        }
+        return value;
+    }
+
+    /**
+     * @return the value read by an array load given its IN fact, i.e.,
+     * the meet of the values written by all stores to the aliased arrays
+     * with the indexes that may equal the index of the load.
+     */
+    Value getValue(LoadArray load, CPFact in) {
+        Value index = in.get(load.getArrayAccess().getIndex());
+        if (index.isUndef()) {
+            return Value.getUndef();
+        }
+        Value value = Value.getUndef();
+        for (Obj array : pta.getPointsToSet(load.getArrayAccess().getBase())) {
+            value = cp.meetValue(value, arrayValues
+                    .computeIfAbsent(array, __ -> Maps.newHybridMap())
+                    .computeIfAbsent(index, i -> computeArrayValue(array, i)));
+        }
+        return value;
+    }
+
+    private Value computeArrayValue(Obj array, Value index) {
+        Value value = Value.getUndef();
+        for (StoreArray store : arrayStores.get(array)) {
+            Value storeIndex = storeIndexes.getOrDefault(store, Value.getUndef());
+            if (mayAlias(index, storeIndex)) {
+                value = cp.meetValue(value,
+                        storeValues.getOrDefault(store, Value.getUndef()));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return true if two (non-UNDEF) indexes may be equal.
+     */
+    private static boolean mayAlias(Value index1, Value index2) {
+        if (index1.isUndef() || index2.isUndef()) {
+            return false;
+        }
+        return index1.isNAC() || index2.isNAC() ||
+                index1.getConstant() == index2.getConstant();
+    }
+
+    /**
+     * Key of field of an abstract object, or of a static field
+     * if {@code base} is null.
+     */
+    private record FieldKey(@Nullable Obj base, JField field) {
+    }
+}
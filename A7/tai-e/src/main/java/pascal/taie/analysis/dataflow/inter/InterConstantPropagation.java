@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
@@ -37,7 +38,11 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
 
 /**
@@ -50,15 +55,27 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    private final boolean aliasAware;
+
+    /**
+     * Index of aliased field/array stores and loads,
+     * available if {@link #aliasAware} is true.
+     */
+    private AliasIndex aliasIndex;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        aliasAware = getOptions().getBooleanOrDefault("alias-aware", false);
     }
 
     @Override
     protected void initialize() {
         String ptaId = getOptions().getString("pta");
         PointerAnalysisResult pta = World.get().getResult(ptaId);
+        if (aliasAware) {
+            aliasIndex = new AliasIndex(pta, cp);
+        }
         // You can do initialization work here
     }
 
@@ -85,37 +102,77 @@ public class InterConstantPropagation extends
 
     @Override
     protected boolean transferCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        // the value of the call result flows via the return edges,
+        // and is killed on the call-to-return edge
+        return out.copyFrom(in);
     }
 
     @Override
     protected boolean transferNonCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (aliasIndex != null) {
+            if (stmt instanceof StoreField store) {
+                aliasIndex.updateStore(store, in).forEach(solver::addToWorkList);
+            } else if (stmt instanceof StoreArray store) {
+                aliasIndex.updateStore(store, in).forEach(solver::addToWorkList);
+            } else if (stmt instanceof LoadField load &&
+                    ConstantPropagation.canHoldInt(load.getLValue())) {
+                return transferLoad(load.getLValue(),
+                        aliasIndex.getValue(load), in, out);
+            } else if (stmt instanceof LoadArray load &&
+                    ConstantPropagation.canHoldInt(load.getLValue())) {
+                return transferLoad(load.getLValue(),
+                        aliasIndex.getValue(load, in), in, out);
+            }
+        }
+        return cp.transferNode(stmt, in, out);
+    }
+
+    private static boolean transferLoad(Var lhs, Value value, CPFact in, CPFact out) {
+        CPFact newOut = in.copy();
+        newOut.update(lhs, value);
+        return out.copyFrom(newOut);
     }
 
     @Override
     protected CPFact transferNormalEdge(NormalEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        return out;
     }
 
     @Override
     protected CPFact transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        CPFact fact = out.copy();
+        Var lhs = ((Invoke) edge.getSource()).getLValue();
+        if (lhs != null) {
+            fact.remove(lhs);
+        }
+        return fact;
     }
 
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
-        // TODO - finish me
-        return null;
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        IR ir = edge.getCallee().getIR();
+        CPFact fact = newInitialFact();
+        for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+            Var param = ir.getParam(i);
+            if (ConstantPropagation.canHoldInt(param)) {
+                fact.update(param, callSiteOut.get(invokeExp.getArg(i)));
+            }
+        }
+        return fact;
     }
 
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
-        // TODO - finish me
-        return null;
+        CPFact fact = newInitialFact();
+        Var lhs = ((Invoke) edge.getCallSite()).getLValue();
+        if (lhs != null && ConstantPropagation.canHoldInt(lhs)) {
+            Value value = Value.getUndef();
+            for (Var ret : edge.getReturnVars()) {
+                value = cp.meetValue(value, returnOut.get(ret));
+            }
+            fact.update(lhs, value);
+        }
+        return fact;
     }
 }
@@ -27,6 +27,7 @@ import pascal.taie.analysis.pta.pts.PointsToSet;
 
 import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents work list in pointer analysis.
@@ -50,6 +51,18 @@ class WorkList {
         return entries.poll();
     }
 
+    /**
+     * Moves the entries of each pointer to the pointer given by redirect,
+     * e.g., when the pointer is collapsed into a representative in PFG.
+     */
+    void redirectEntries(UnaryOperator<Pointer> redirect) {
+        for (int i = entries.size(); i > 0; --i) {
+            Entry entry = entries.poll();
+            entries.add(new Entry(redirect.apply(entry.pointer()),
+                    entry.pointsToSet()));
+        }
+    }
+
     /**
      * @return true if the work list is empty, otherwise false.
      */
@@ -59,6 +59,11 @@ public class InterCPAliasTest {
         test("InstanceField");
     }
 
+    @Test
+    public void testLoadBeforeStore() {
+        test("LoadBeforeStore");
+    }
+
     @Test
     public void testMultiStores() {
         test("MultiStores");
@@ -0,0 +1,13 @@
+class LoadBeforeStore {
+    public static void main(String[] args) {
+        A a = new A();
+        A b = a;
+        int x = b.f;
+        a.f = 2;
+        int y = b.f;
+    }
+}
+
+class A {
+    int f;
+}
@@ -40,6 +40,10 @@ import java.util.stream.Stream;
 
 /**
  * Represents context-sensitive call graph.
+ * <p>
+ * The methods that modify this call graph are synchronized, so that
+ * the reachable methods and call edges can be added by the worker
+ * threads of parallel pointer analysis.
  */
 public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
 
@@ -52,7 +56,7 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
     /**
      * Adds an entry method to this call graph.
      */
-    public void addEntryMethod(CSMethod entryMethod) {
+    public synchronized void addEntryMethod(CSMethod entryMethod) {
         entryMethods.add(entryMethod);
     }
 
@@ -62,7 +66,7 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * @return true if this call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addReachableMethod(CSMethod csMethod) {
+    public synchronized boolean addReachableMethod(CSMethod csMethod) {
         if (reachableMethods.add(csMethod)) {
             callSitesIn(csMethod).forEach(csCallSite ->
                     csCallSite.setContainer(csMethod));
@@ -79,7 +83,7 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * @return true if the call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
+    public synchronized boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
         if (edge.getCallSite().addEdge(edge)) {
             edge.getCallee().addEdge(edge);
             return true;
@@ -0,0 +1,50 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.heap;
+
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.stmt.New;
+
+/**
+ * Heap model that guards another heap model with a lock, so that
+ * the abstract objects can be obtained by multiple threads.
+ */
+public class SynchronizedHeapModel implements HeapModel {
+
+    private final HeapModel heapModel;
+
+    public SynchronizedHeapModel(HeapModel heapModel) {
+        this.heapModel = heapModel;
+    }
+
+    @Override
+    public synchronized Obj getObj(New allocSite) {
+        return heapModel.getObj(allocSite);
+    }
+
+    @Override
+    public synchronized Obj getConstantObj(ReferenceLiteral value) {
+        return heapModel.getConstantObj(value);
+    }
+}
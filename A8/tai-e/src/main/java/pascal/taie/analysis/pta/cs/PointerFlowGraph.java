@@ -22,21 +22,81 @@
 
 package pascal.taie.analysis.pta.cs;
 
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.MapSetMultiMap;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCC;
+import pascal.taie.util.graph.SimpleGraph;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * Cycles in this PFG are detected online: whenever the number of edges
+ * doubles, the strongly connected components of the graph are computed,
+ * and the pointers of each cycle are collapsed into a representative.
+ * The collapsed pointers share the points-to set of the representative,
+ * and their incoming and outgoing edges as well as their pending work-list
+ * entries are redirected to it, so that the objects flowing around
+ * the cycle are propagated only once.
+ * <p>
+ * Only the pointers that have no statement to be processed on new objects
+ * (i.e., variables that are not the base of any field access, array access
+ * or invocation) are collapsed, as the solver handles such statements per
+ * pointer.
+ * <p>
+ * A concurrent PFG can be updated by the worker threads of parallel
+ * pointer analysis. Cycles are not collapsed in a concurrent PFG, as the
+ * collapsing rewires the graph while other workers are traversing it.
  */
 class PointerFlowGraph {
 
+    /**
+     * Number of edges at which the first cycle detection is performed.
+     */
+    private static final int INITIAL_DETECTION_THRESHOLD = 128;
+
     /**
      * Map from a pointer (node) to its successors in PFG.
      */
-    private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
+    private final MultiMap<Pointer, Pointer> successors;
+
+    /**
+     * Map from a collapsed pointer to the pointer it was merged into.
+     */
+    private final Map<Pointer, Pointer> representatives = Maps.newMap();
+
+    /**
+     * Map from a representative to the pointers collapsed into it.
+     */
+    private final MultiMap<Pointer, Pointer> collapsed = Maps.newMultiMap();
+
+    /**
+     * Work list to which the objects of collapsed pointers are re-added.
+     */
+    private final WorkList workList;
+
+    private final boolean concurrent;
+
+    private int edgeCount = 0;
+
+    private int detectionThreshold = INITIAL_DETECTION_THRESHOLD;
+
+    PointerFlowGraph(WorkList workList, boolean concurrent) {
+        this.workList = workList;
+        this.concurrent = concurrent;
+        this.successors = concurrent ?
+                new MapSetMultiMap<>(Maps.newConcurrentMap(), Sets::newConcurrentSet) :
+                Maps.newMultiMap();
+    }
 
     /**
      * Adds an edge (source -> target) to this PFG.
@@ -45,13 +105,131 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        Pointer s = getRepresentative(source);
+        Pointer t = getRepresentative(target);
+        if (s == t || !successors.put(s, t)) {
+            return false;
+        }
+        if (!concurrent && ++edgeCount >= detectionThreshold) {
+            collapseCycles();
+            detectionThreshold = edgeCount * 2;
+        }
+        return true;
     }
 
     /**
      * @return successors of given pointer in the PFG.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRepresentative(pointer));
+    }
+
+    /**
+     * @return the representative of the cycle the given pointer was
+     * collapsed into, or the pointer itself if it was not collapsed.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        Pointer rep = representatives.get(pointer);
+        if (rep == null) {
+            return pointer;
+        }
+        Pointer root = getRepresentative(rep);
+        if (root != rep) {
+            representatives.put(pointer, root);
+        }
+        return root;
+    }
+
+    /**
+     * Computes the cycles of this PFG and collapses the pointers in them.
+     */
+    private void collapseCycles() {
+        SimpleGraph<Pointer> graph = new SimpleGraph<>();
+        successors.forEach((s, t) -> graph.addEdge(s, getRepresentative(t)));
+        boolean collapsedAny = false;
+        for (List<Pointer> component : new SCC<>(graph).getTrueComponents()) {
+            List<Pointer> group = component.stream()
+                    .filter(PointerFlowGraph::isCollapsible)
+                    .toList();
+            if (group.size() > 1) {
+                collapse(group);
+                collapsedAny = true;
+            }
+        }
+        if (collapsedAny) {
+            redirectInEdges();
+            // objects pending for the collapsed pointers are
+            // propagated from their representatives
+            workList.redirectEntries(this::getRepresentative);
+            edgeCount = successors.size();
+        }
+    }
+
+    /**
+     * Collapses the given pointers into the first of them.
+     */
+    private void collapse(List<Pointer> group) {
+        Pointer rep = group.get(0);
+        PointsToSet pts = rep.getPointsToSet();
+        List<Pointer> members = group.subList(1, group.size());
+        members.forEach(member -> representatives.put(member, rep));
+        Set<Pointer> succs = Sets.newSet();
+        for (Pointer member : members) {
+            // objects of the member which have not reached the
+            // representative are propagated to all successors
+            workList.addEntry(rep, member.getPointsToSet());
+            member.setPointsToSet(pts);
+            collapsed.put(rep, member);
+            for (Pointer p : collapsed.get(member)) {
+                p.setPointsToSet(pts);
+                collapsed.put(rep, p);
+            }
+            collapsed.removeAll(member);
+            successors.get(member).forEach(succ ->
+                    succs.add(getRepresentative(succ)));
+            successors.removeAll(member);
+        }
+        succs.remove(rep);
+        for (Pointer succ : succs) {
+            // objects of the representative have not reached
+            // the successors of the members
+            if (successors.put(rep, succ) && !pts.isEmpty()) {
+                workList.addEntry(succ, pts);
+            }
+        }
+    }
+
+    /**
+     * Redirects the edges to collapsed pointers to their representatives.
+     * The objects that have flowed along such edges are already in the
+     * points-to sets or work-list entries of the collapsed pointers,
+     * which are taken over by the representatives.
+     */
+    private void redirectInEdges() {
+        MultiMap<Pointer, Pointer> redirected = Maps.newMultiMap();
+        successors.forEach((source, target) -> {
+            if (representatives.containsKey(target)) {
+                redirected.put(source, target);
+            }
+        });
+        redirected.forEach((source, target) -> {
+            successors.remove(source, target);
+            Pointer rep = getRepresentative(target);
+            if (rep != source) {
+                successors.put(source, rep);
+            }
+        });
+    }
+
+    private static boolean isCollapsible(Pointer pointer) {
+        if (pointer instanceof CSVar csVar) {
+            Var var = csVar.getVar();
+            return var.getLoadFields().isEmpty() &&
+                    var.getStoreFields().isEmpty() &&
+                    var.getLoadArrays().isEmpty() &&
+                    var.getStoreArrays().isEmpty() &&
+                    var.getInvokes().isEmpty();
+        }
+        return true;
     }
 }
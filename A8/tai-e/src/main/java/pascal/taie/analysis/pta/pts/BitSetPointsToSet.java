@@ -0,0 +1,156 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Points-to set that keeps the indexes of context-sensitive objects
+ * in a {@link SparseBitSet}. The objects are iterated in order of their
+ * indexes, i.e., the order of their creation.
+ */
+class BitSetPointsToSet implements PointsToSet {
+
+    /**
+     * Maps the indexes in this set back to the objects.
+     */
+    private final Indexer<CSObj> objIndexer;
+
+    private final SparseBitSet set;
+
+    BitSetPointsToSet(Indexer<CSObj> objIndexer) {
+        this(objIndexer, new SparseBitSet());
+    }
+
+    private BitSetPointsToSet(Indexer<CSObj> objIndexer, SparseBitSet set) {
+        this.objIndexer = objIndexer;
+        this.set = set;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        return set.add(obj.getIndex());
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof BitSetPointsToSet other) {
+            return set.addAll(other.set);
+        }
+        boolean changed = false;
+        for (CSObj obj : pts) {
+            changed |= addObject(obj);
+        }
+        return changed;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        if (pts instanceof BitSetPointsToSet other) {
+            return new BitSetPointsToSet(objIndexer, set.addAllDiff(other.set));
+        }
+        BitSetPointsToSet diff = new BitSetPointsToSet(objIndexer);
+        for (CSObj obj : pts) {
+            if (addObject(obj)) {
+                diff.addObject(obj);
+            }
+        }
+        return diff;
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return set.contains(obj.getIndex());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return set.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return set.size();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof CSObj obj && set.contains(obj.getIndex());
+            }
+
+            @Override
+            public Iterator<CSObj> iterator() {
+                return BitSetPointsToSet.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return set.size();
+            }
+        };
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), set.size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        PrimitiveIterator.OfInt it = set.iterator();
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public CSObj next() {
+                return objIndexer.getObject(it.nextInt());
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+}
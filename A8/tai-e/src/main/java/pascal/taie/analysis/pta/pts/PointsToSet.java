@@ -49,6 +49,14 @@ public interface PointsToSet extends Iterable<CSObj> {
      */
     boolean addAll(PointsToSet pts);
 
+    /**
+     * Adds all objects in given pts to this set.
+     *
+     * @return the objects in given pts that were not in this set
+     * before the call, i.e., the difference of given pts and this set.
+     */
+    PointsToSet addAllDiff(PointsToSet pts);
+
     /**
      * @return true if this set contains given object, otherwise false.
      */
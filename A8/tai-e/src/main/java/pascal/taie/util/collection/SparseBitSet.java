@@ -0,0 +1,456 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of non-negative ints, for sets of indexed elements that are sparse
+ * in a large universe, e.g., points-to sets.
+ * <p>
+ * The ints are partitioned into chunks by their high bits, and only the
+ * non-empty chunks are stored, in order of their keys. A chunk holds
+ * its low bits in a sorted array while it is small, and in a bitmap
+ * when the bitmap is more compact (like Roaring bitmaps). Iteration
+ * is in ascending order.
+ */
+public class SparseBitSet {
+
+    private static final int CHUNK_BITS = 12;
+
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    /**
+     * Number of words of a bitmap chunk.
+     */
+    private static final int BITMAP_WORDS = 1 << (CHUNK_BITS - 6);
+
+    /**
+     * Maximum size of an array chunk, beyond which the chunk is converted
+     * to a bitmap, as the array takes more memory than the bitmap.
+     */
+    private static final int MAX_ARRAY_SIZE = BITMAP_WORDS * 4;
+
+    private static final int[] EMPTY_KEYS = {};
+
+    private static final Object[] EMPTY_CHUNKS = {};
+
+    /**
+     * Sorted keys (high bits) of the non-empty chunks.
+     */
+    private int[] keys = EMPTY_KEYS;
+
+    /**
+     * The chunks, each is either a char[] of sorted low bits, or
+     * a long[] bitmap of {@link #BITMAP_WORDS} words.
+     */
+    private Object[] chunks = EMPTY_CHUNKS;
+
+    /**
+     * Sizes of the chunks.
+     */
+    private int[] sizes = EMPTY_KEYS;
+
+    private int nChunks = 0;
+
+    private int size = 0;
+
+    /**
+     * Adds an int to this set.
+     *
+     * @return true if this set changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean add(int i) {
+        checkIndex(i);
+        int key = i >>> CHUNK_BITS;
+        int pos = findChunk(key);
+        if (pos < 0) {
+            pos = -pos - 1;
+            insertChunk(pos, key);
+        }
+        if (addToChunk(pos, (char) (i & CHUNK_MASK))) {
+            ++size;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if this set contains the given int, otherwise false.
+     */
+    public boolean contains(int i) {
+        if (i < 0) {
+            return false;
+        }
+        int pos = findChunk(i >>> CHUNK_BITS);
+        if (pos < 0) {
+            return false;
+        }
+        char low = (char) (i & CHUNK_MASK);
+        Object chunk = chunks[pos];
+        if (chunk instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        } else {
+            return Arrays.binarySearch((char[]) chunk, 0, sizes[pos], low) >= 0;
+        }
+    }
+
+    /**
+     * Adds all ints in the given set to this set.
+     *
+     * @return true if this set changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean addAll(SparseBitSet other) {
+        return addAll(other, null);
+    }
+
+    /**
+     * Adds all ints in the given set to this set.
+     *
+     * @return the ints that were not in this set before the call,
+     * i.e., the difference of the given set and this set.
+     */
+    public SparseBitSet addAllDiff(SparseBitSet other) {
+        SparseBitSet diff = new SparseBitSet();
+        addAll(other, diff);
+        return diff;
+    }
+
+    /**
+     * Adds all ints in {@code other} to this set, and also to {@code diff}
+     * (if it is not null) for the ints that are not in this set.
+     */
+    private boolean addAll(SparseBitSet other, SparseBitSet diff) {
+        int oldSize = size;
+        for (int j = 0; j < other.nChunks; ++j) {
+            int key = other.keys[j];
+            int pos = findChunk(key);
+            if (pos < 0) {
+                // copies the absent chunk
+                pos = -pos - 1;
+                insertChunk(pos, key);
+                chunks[pos] = copyChunk(other.chunks[j]);
+                sizes[pos] = other.sizes[j];
+                size += other.sizes[j];
+                if (diff != null) {
+                    diff.appendChunk(key, copyChunk(other.chunks[j]), other.sizes[j]);
+                }
+            } else if (chunks[pos] instanceof long[] bitmap
+                    && other.chunks[j] instanceof long[] otherBitmap) {
+                // merges two bitmaps word by word
+                long[] diffBitmap = null;
+                int added = 0;
+                for (int w = 0; w < BITMAP_WORDS; ++w) {
+                    long newBits = otherBitmap[w] & ~bitmap[w];
+                    if (newBits != 0) {
+                        bitmap[w] |= newBits;
+                        added += Long.bitCount(newBits);
+                        if (diff != null) {
+                            if (diffBitmap == null) {
+                                diffBitmap = new long[BITMAP_WORDS];
+                            }
+                            diffBitmap[w] = newBits;
+                        }
+                    }
+                }
+                sizes[pos] += added;
+                size += added;
+                if (diffBitmap != null) {
+                    diff.appendChunk(key, diffBitmap, added);
+                }
+            } else {
+                int base = key << CHUNK_BITS;
+                if (other.chunks[j] instanceof char[] array) {
+                    for (int k = 0; k < other.sizes[j]; ++k) {
+                        addToChunk(pos, base, array[k], diff);
+                    }
+                } else {
+                    long[] otherBitmap = (long[]) other.chunks[j];
+                    for (int low = nextSetBit(otherBitmap, 0); low >= 0;
+                         low = nextSetBit(otherBitmap, low + 1)) {
+                        addToChunk(pos, base, low, diff);
+                    }
+                }
+            }
+        }
+        return size != oldSize;
+    }
+
+    private void addToChunk(int pos, int base, int low, SparseBitSet diff) {
+        if (addToChunk(pos, (char) low)) {
+            ++size;
+            if (diff != null) {
+                diff.add(base | low);
+            }
+        }
+    }
+
+    /**
+     * @return the smallest int in this set that is greater than or equal
+     * to {@code from}, or -1 if there is no such int.
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        int key = from >>> CHUNK_BITS;
+        int pos = findChunk(key);
+        int low;
+        if (pos >= 0) {
+            low = nextInChunk(pos, from & CHUNK_MASK);
+            if (low >= 0) {
+                return (key << CHUNK_BITS) | low;
+            }
+            ++pos;
+        } else {
+            pos = -pos - 1;
+        }
+        if (pos < nChunks) {
+            return (keys[pos] << CHUNK_BITS) | nextInChunk(pos, 0);
+        }
+        return -1;
+    }
+
+    private int nextInChunk(int pos, int from) {
+        Object chunk = chunks[pos];
+        if (chunk instanceof long[] bitmap) {
+            return nextSetBit(bitmap, from);
+        } else {
+            char[] array = (char[]) chunk;
+            int i = Arrays.binarySearch(array, 0, sizes[pos], (char) from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < sizes[pos] ? array[i] : -1;
+        }
+    }
+
+    private static int nextSetBit(long[] bitmap, int from) {
+        int w = from >>> 6;
+        if (w >= BITMAP_WORDS) {
+            return -1;
+        }
+        long word = bitmap[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == BITMAP_WORDS) {
+                return -1;
+            }
+            word = bitmap[w];
+        }
+    }
+
+    /**
+     * Performs the given action for each int in this set in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int pos = 0; pos < nChunks; ++pos) {
+            int base = keys[pos] << CHUNK_BITS;
+            Object chunk = chunks[pos];
+            if (chunk instanceof long[] bitmap) {
+                for (int w = 0; w < BITMAP_WORDS; ++w) {
+                    long word = bitmap[w];
+                    while (word != 0) {
+                        action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) chunk;
+                for (int i = 0; i < sizes[pos]; ++i) {
+                    action.accept(base | array[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return an iterator over the ints in this set in ascending order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int next = nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int curr = next;
+                next = curr == Integer.MAX_VALUE ? -1 : nextSetBit(curr + 1);
+                return curr;
+            }
+        };
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SparseBitSet other) || size != other.size) {
+            return false;
+        }
+        for (PrimitiveIterator.OfInt it1 = iterator(), it2 = other.iterator();
+             it1.hasNext(); ) {
+            if (it1.nextInt() != it2.nextInt()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        forEach(i -> hash[0] += i);
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach(i -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(i);
+        });
+        return sb.append('}').toString();
+    }
+
+    private static void checkIndex(int i) {
+        if (i < 0) {
+            throw new IllegalArgumentException("Negative index: " + i);
+        }
+    }
+
+    /**
+     * @return position of the chunk of given key if it exists, otherwise
+     * (-(insertion point) - 1).
+     */
+    private int findChunk(int key) {
+        // fast path for appending in ascending order
+        if (nChunks > 0 && keys[nChunks - 1] < key) {
+            return -nChunks - 1;
+        }
+        return Arrays.binarySearch(keys, 0, nChunks, key);
+    }
+
+    private void insertChunk(int pos, int key) {
+        if (nChunks == keys.length) {
+            int newLength = Math.max(4, nChunks * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            chunks = Arrays.copyOf(chunks, newLength);
+            sizes = Arrays.copyOf(sizes, newLength);
+        }
+        int moved = nChunks - pos;
+        System.arraycopy(keys, pos, keys, pos + 1, moved);
+        System.arraycopy(chunks, pos, chunks, pos + 1, moved);
+        System.arraycopy(sizes, pos, sizes, pos + 1, moved);
+        keys[pos] = key;
+        chunks[pos] = new char[2];
+        sizes[pos] = 0;
+        ++nChunks;
+    }
+
+    /**
+     * Appends a chunk whose key is greater than the keys of all chunks.
+     */
+    private void appendChunk(int key, Object chunk, int chunkSize) {
+        insertChunk(nChunks, key);
+        chunks[nChunks - 1] = chunk;
+        sizes[nChunks - 1] = chunkSize;
+        size += chunkSize;
+    }
+
+    private static Object copyChunk(Object chunk) {
+        return chunk instanceof long[] bitmap ?
+                bitmap.clone() : ((char[]) chunk).clone();
+    }
+
+    /**
+     * Adds low bits to the chunk at given position,
+     * but does not update {@link #size}.
+     */
+    private boolean addToChunk(int pos, char low) {
+        Object chunk = chunks[pos];
+        if (chunk instanceof long[] bitmap) {
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= bit;
+            ++sizes[pos];
+            return true;
+        }
+        char[] array = (char[]) chunk;
+        int n = sizes[pos];
+        int i = n > 0 && array[n - 1] < low ? -n - 1 :
+                Arrays.binarySearch(array, 0, n, low);
+        if (i >= 0) {
+            return false;
+        }
+        i = -i - 1;
+        if (n == MAX_ARRAY_SIZE) {
+            // converts to bitmap
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (int k = 0; k < n; ++k) {
+                bitmap[array[k] >>> 6] |= 1L << array[k];
+            }
+            bitmap[low >>> 6] |= 1L << low;
+            chunks[pos] = bitmap;
+        } else {
+            if (n == array.length) {
+                array = Arrays.copyOf(array, Math.min(n * 2, MAX_ARRAY_SIZE));
+                chunks[pos] = array;
+            }
+            System.arraycopy(array, i, array, i + 1, n - i);
+            array[i] = low;
+        }
+        ++sizes[pos];
+        return true;
+    }
+}